@@ -0,0 +1,94 @@
+package com.marketplace.benchmarks;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.marketplace.FarmersMarketPlaceApplication;
+
+/**
+ * Boots the real application context (services, DAOs, aspects) without the web
+ * layer, against a private in-memory H2 database, and seeds it with plain JDBC
+ * so fixture setup is not part of what is measured.
+ */
+final class BenchmarkApp {
+
+	private BenchmarkApp() {
+	}
+
+	static ConfigurableApplicationContext start() {
+		String db = "bench" + UUID.randomUUID().toString().replace("-", "");
+		// passed as arguments so they win over application.properties
+		return new SpringApplicationBuilder(FarmersMarketPlaceApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:" + db + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=",
+						"--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+						"--spring.jpa.hibernate.ddl-auto=validate",
+						"--spring.main.banner-mode=off",
+						"--logging.level.root=WARN",
+						"--slow-query.threshold-ms=-1",
+						"--jwt.secret=" + randomSecret());
+	}
+
+	/** A signing key for this context only; nothing outside the JVM sees its tokens. */
+	static String randomSecret() {
+		byte[] key = new byte[48];
+		new SecureRandom().nextBytes(key);
+		return Base64.getEncoder().encodeToString(key);
+	}
+
+	static JdbcTemplate jdbc(ConfigurableApplicationContext ctx) {
+		return ctx.getBean(JdbcTemplate.class);
+	}
+
+	static int insertCategory(JdbcTemplate jdbc, String name) {
+		jdbc.update("insert into category (category_name) values (?)", name);
+		return jdbc.queryForObject("select category_id from category where category_name = ?", Integer.class, name);
+	}
+
+	static int insertFarmer(JdbcTemplate jdbc, int n) {
+		jdbc.update("insert into farmer (firstname, lastname, email, phone_no, address) values (?, ?, ?, ?, ?)",
+				"Farmer" + n, "Bench", "farmer" + n + "@bench.test", String.valueOf(9000000000L + n), "Plot " + n);
+		return jdbc.queryForObject("select farmer_id from farmer where phone_no = ?", Integer.class,
+				String.valueOf(9000000000L + n));
+	}
+
+	/** Inserts count products for the farmer and returns their ids. */
+	static List<Integer> insertProducts(JdbcTemplate jdbc, int farmerId, int categoryId, int count) {
+		List<Object[]> rows = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			rows.add(new Object[] { "item-" + farmerId + "-" + i, 10 + i % 90, 5f + i % 50, categoryId, farmerId });
+		jdbc.batchUpdate("insert into stock_details (stock_item, quantity, price_per_unit, category_id, farmer_id)"
+				+ " values (?, ?, ?, ?, ?)", rows);
+		return jdbc.queryForList("select product_id from stock_details where farmer_id = ? order by product_id",
+				Integer.class, farmerId);
+	}
+
+	static int insertUser(JdbcTemplate jdbc, String email) {
+		jdbc.update("insert into users (email, password, firstname, is_admin, user_type) values (?, ?, ?, false, 'BUYER')",
+				email, "x", "Buyer");
+		return jdbc.queryForObject("select user_id from users where email = ?", Integer.class, email);
+	}
+
+	/** One order with one order line per iteration, all for the given farmer. */
+	static void insertOrders(JdbcTemplate jdbc, int userId, int farmerId, int count) {
+		List<Object[]> orders = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			orders.add(new Object[] { userId });
+		jdbc.batchUpdate("insert into orders (user_id, delivery_status, payment_status, place_order_date, delivery_date)"
+				+ " values (?, false, true, current_date, current_date)", orders);
+		jdbc.update("insert into order_details (order_id, farmer_id, order_item, quantity, amount, place_order_date)"
+				+ " select order_id, ?, 'item', 1 + mod(order_id, 5), 10.0 * (1 + mod(order_id, 5)), place_order_date from orders"
+				+ " where user_id = ?", farmerId, userId);
+	}
+}
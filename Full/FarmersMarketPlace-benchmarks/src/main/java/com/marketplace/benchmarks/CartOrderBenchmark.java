@@ -0,0 +1,93 @@
+package com.marketplace.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.marketplace.pojos.Cart;
+import com.marketplace.pojos.CartItem;
+import com.marketplace.pojos.User;
+import com.marketplace.service.IUserService;
+
+/**
+ * IUserService.AddToCart (two lookups per product) and PlaceOrder (one order
+ * plus a line per cart item) through the transactional service proxy against
+ * embedded H2. Orders are deleted after each iteration so the tables don't
+ * grow across the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class CartOrderBenchmark {
+
+	@Param({ "1", "5" })
+	public int cartItems;
+
+	private ConfigurableApplicationContext ctx;
+	private JdbcTemplate jdbc;
+	private IUserService userService;
+	private List<Integer> productIds;
+	private User buyer;
+	private Cart cart;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		ctx = BenchmarkApp.start();
+		jdbc = BenchmarkApp.jdbc(ctx);
+		userService = ctx.getBean(IUserService.class);
+		int category = BenchmarkApp.insertCategory(jdbc, "Vegetables");
+		productIds = new ArrayList<>();
+		for (int f = 0; f < 10; f++)
+			productIds.addAll(BenchmarkApp.insertProducts(jdbc, BenchmarkApp.insertFarmer(jdbc, f), category, 100));
+		buyer = new User();
+		buyer.setUserId(BenchmarkApp.insertUser(jdbc, "buyer@bench.test"));
+
+		List<CartItem> items = new ArrayList<>();
+		for (int i = 0; i < cartItems; i++)
+			items.add(userService.AddToCart(productIds.get(i * 97 % productIds.size()), 1 + i));
+		cart = new Cart();
+		cart.setItems(items);
+	}
+
+	@TearDown(Level.Iteration)
+	public void deleteOrders() {
+		jdbc.update("delete from order_details");
+		jdbc.update("delete from orders");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ctx.close();
+	}
+
+	@Benchmark
+	public CartItem addToCart() {
+		int id = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+		return userService.AddToCart(id, 2);
+	}
+
+	@Benchmark
+	public boolean placeOrder() {
+		return userService.PlaceOrder(cart, buyer);
+	}
+}
@@ -0,0 +1,75 @@
+package com.marketplace.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.pojos.Category;
+import com.marketplace.pojos.Farmer;
+import com.marketplace.pojos.StockDetails;
+
+/**
+ * JSON encoding of the catalog responses: the flat product list returned by
+ * /farmer/allproducts and farmers with their stock (the shape of the farmer
+ * listings). Stock items carry no back-reference to the farmer, as in the
+ * projections the DAOs return, so the graph has no cycles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSerializationBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int products;
+
+	private ObjectMapper mapper;
+	private List<StockDetails> productList;
+	private List<Farmer> farmers;
+
+	@Setup
+	public void setUp() {
+		// same defaults Spring MVC's message converter gets
+		mapper = Jackson2ObjectMapperBuilder.json().build();
+		Category[] categories = { new Category(1, "Vegetables"), new Category(2, "Fruits"), new Category(3, "Grains") };
+		productList = new ArrayList<>(products);
+		for (int i = 0; i < products; i++)
+			productList.add(new StockDetails(i + 1, "item-" + i, 10 + i % 90, 5f + i % 50, categories[i % 3],
+					"images/item-" + i + ".jpg"));
+
+		// ten products per farmer
+		farmers = new ArrayList<>();
+		for (int f = 0; f * 10 < products; f++) {
+			Farmer farmer = new Farmer(f + 1, "Farmer" + f, "Bench", "farmer" + f + "@bench.test",
+					String.valueOf(9000000000L + f), "Plot " + f);
+			farmer.setStock(new ArrayList<>(productList.subList(f * 10, Math.min(products, f * 10 + 10))));
+			farmers.add(farmer);
+		}
+	}
+
+	@Benchmark
+	public byte[] productList() throws Exception {
+		return mapper.writeValueAsBytes(productList);
+	}
+
+	@Benchmark
+	public byte[] farmersWithStock() throws Exception {
+		return mapper.writeValueAsBytes(farmers);
+	}
+}
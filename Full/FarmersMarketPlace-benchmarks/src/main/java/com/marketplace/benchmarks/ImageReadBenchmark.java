@@ -0,0 +1,80 @@
+package com.marketplace.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.marketplace.service.IAdminService;
+
+/**
+ * The two product image read paths: restoreImage (lookup by id) and
+ * restoreImageAgain (lookup by product name through the repository), each
+ * followed by reading the whole file from disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class ImageReadBenchmark {
+
+	@Param({ "64", "1024" })
+	public int imageKb;
+
+	private ConfigurableApplicationContext ctx;
+	private IAdminService adminService;
+	private Path image;
+	private int productId;
+	private String productName;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ctx = BenchmarkApp.start();
+		JdbcTemplate jdbc = BenchmarkApp.jdbc(ctx);
+		adminService = ctx.getBean(IAdminService.class);
+
+		byte[] bytes = new byte[imageKb * 1024];
+		ThreadLocalRandom.current().nextBytes(bytes);
+		image = Files.createTempFile("bench-image", ".jpg");
+		Files.write(image, bytes);
+
+		int farmer = BenchmarkApp.insertFarmer(jdbc, 1);
+		productId = BenchmarkApp.insertProducts(jdbc, farmer, BenchmarkApp.insertCategory(jdbc, "Fruits"), 1).get(0);
+		productName = "item-" + farmer + "-0";
+		jdbc.update("update stock_details set product_image = ? where product_id = ?", image.toString(), productId);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		ctx.close();
+		Files.deleteIfExists(image);
+	}
+
+	@Benchmark
+	public byte[] byProductId() throws Exception {
+		return adminService.restoreImage(productId);
+	}
+
+	@Benchmark
+	public byte[] byProductName() throws Exception {
+		return adminService.restoreImageAgain(productName);
+	}
+}
@@ -0,0 +1,76 @@
+package com.marketplace.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.marketplace.pojos.CartItem;
+import com.marketplace.service.PdfExportService;
+
+/**
+ * PdfExportService.export as called from /user/placeorder: it reads fm.jpg and
+ * writes receipt.pdf in the working directory. A placeholder logo is created
+ * there for the run if none exists, and removed again afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class PdfExportBenchmark {
+
+	@Param({ "5", "50" })
+	public int items;
+
+	private final PdfExportService service = new PdfExportService();
+	private final Path logo = Path.of("fm.jpg");
+	private final Path receipt = Path.of("receipt.pdf");
+	private boolean createdLogo;
+	private boolean receiptExisted;
+	private List<CartItem> cart;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		if (!Files.exists(logo)) {
+			ImageIO.write(new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB), "jpg", logo.toFile());
+			createdLogo = true;
+		}
+		receiptExisted = Files.exists(receipt);
+		cart = new ArrayList<>(items);
+		for (int i = 0; i < items; i++)
+			cart.add(new CartItem(i + 1, "item-" + i, 1 + i % 5, 10.0 + i, (1 + i % 5) * (10.0 + i), 1));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		if (createdLogo)
+			Files.deleteIfExists(logo);
+		if (!receiptExisted)
+			Files.deleteIfExists(receipt);
+	}
+
+	@Benchmark
+	public void export() throws Exception {
+		service.export(cart);
+	}
+}
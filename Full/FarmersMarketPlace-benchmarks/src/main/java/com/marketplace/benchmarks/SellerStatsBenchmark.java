@@ -0,0 +1,72 @@
+package com.marketplace.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.marketplace.pojos.SellerStats;
+import com.marketplace.service.IFarmersService;
+
+/**
+ * IFarmersService.getSellerStats: three aggregate queries over the farmer's
+ * products and order lines, at two order-history sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class SellerStatsBenchmark {
+
+	@Param({ "100", "10000" })
+	public int orders;
+
+	private ConfigurableApplicationContext ctx;
+	private IFarmersService farmersService;
+	private int farmerId;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		ctx = BenchmarkApp.start();
+		JdbcTemplate jdbc = BenchmarkApp.jdbc(ctx);
+		farmersService = ctx.getBean(IFarmersService.class);
+		int category = BenchmarkApp.insertCategory(jdbc, "Vegetables");
+		farmerId = BenchmarkApp.insertFarmer(jdbc, 1);
+		BenchmarkApp.insertProducts(jdbc, farmerId, category, 50);
+		// a second farmer so the farmer_id filter has something to skip
+		int other = BenchmarkApp.insertFarmer(jdbc, 2);
+		BenchmarkApp.insertOrders(jdbc, BenchmarkApp.insertUser(jdbc, "a@bench.test"), farmerId, orders);
+		BenchmarkApp.insertOrders(jdbc, BenchmarkApp.insertUser(jdbc, "b@bench.test"), other, orders);
+
+		// getSellerStats returns zeros on any error, which would be measured as a fast path
+		SellerStats stats = (SellerStats) farmersService.getSellerStats(farmerId);
+		if (stats.getTotalOrders() != orders || stats.getTotalProducts() != 50)
+			throw new IllegalStateException("unexpected fixture: " + stats.getTotalOrders() + " orders, "
+					+ stats.getTotalProducts() + " products");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ctx.close();
+	}
+
+	@Benchmark
+	public Object sellerStats() {
+		return farmersService.getSellerStats(farmerId);
+	}
+}
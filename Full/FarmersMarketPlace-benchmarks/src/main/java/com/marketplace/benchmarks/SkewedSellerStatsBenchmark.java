@@ -0,0 +1,76 @@
+package com.marketplace.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.marketplace.datagen.DataGenerator;
+import com.marketplace.datagen.DatasetSpec;
+import com.marketplace.pojos.SellerStats;
+import com.marketplace.service.IFarmersService;
+
+/**
+ * IFarmersService.getSellerStats on a generated dataset (500 farmers, ~500k
+ * order lines, Zipf product popularity), for the farmer with the most order
+ * lines and for a median one. The gap between the two is what a uniform
+ * fixture like SellerStatsBenchmark's cannot show.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class SkewedSellerStatsBenchmark {
+
+	@Param({ "hot", "median" })
+	public String farmer;
+
+	private ConfigurableApplicationContext ctx;
+	private IFarmersService farmersService;
+	private int farmerId;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ctx = BenchmarkApp.start();
+		new DataGenerator(ctx.getBean(DataSource.class), DatasetSpec.parse("--users=20000", "--farmers=500",
+				"--products-per-farmer=40", "--orders=125000")).generate();
+		farmersService = ctx.getBean(IFarmersService.class);
+		JdbcTemplate jdbc = BenchmarkApp.jdbc(ctx);
+		String byLines = "select farmer_id from order_details group by farmer_id order by count(*) desc, farmer_id";
+		farmerId = "hot".equals(farmer) ? jdbc.queryForObject(byLines + " limit 1", Integer.class)
+				: jdbc.queryForObject(byLines + " limit 1 offset 250", Integer.class);
+
+		// getSellerStats returns zeros on any error, which would be measured as a fast path
+		SellerStats stats = (SellerStats) farmersService.getSellerStats(farmerId);
+		if (stats.getTotalOrders() == 0 || stats.getTotalProducts() != 40)
+			throw new IllegalStateException("unexpected fixture: " + stats.getTotalOrders() + " orders, "
+					+ stats.getTotalProducts() + " products");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ctx.close();
+	}
+
+	@Benchmark
+	public Object sellerStats() {
+		return farmersService.getSellerStats(farmerId);
+	}
+}
@@ -0,0 +1,120 @@
+package com.marketplace.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.marketplace.pojos.Category;
+import com.marketplace.pojos.Farmer;
+import com.marketplace.pojos.OrderDetails;
+import com.marketplace.pojos.Orders;
+import com.marketplace.pojos.StockDetails;
+import com.marketplace.pojos.User;
+
+/**
+ * Encode time of a product list and an order-line list as JSON, CBOR and
+ * Smile, with mappers built the way the backend builds its message
+ * converters. Payload sizes (raw and gzipped) do not change between
+ * iterations, so setup prints them once per trial instead of measuring them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+	// order lines embed the buyer, password column included
+	private static final String BCRYPT_LIKE = "$2a$10$" + "x".repeat(53);
+
+	@Param({ "json", "cbor", "smile" })
+	public String format;
+
+	@Param({ "100", "1000" })
+	public int items;
+
+	private ObjectMapper mapper;
+	private List<StockDetails> products;
+	private List<OrderDetails> orderLines;
+
+	@Setup
+	public void setUp() throws Exception {
+		mapper = switch (format) {
+		case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+		case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+		default -> Jackson2ObjectMapperBuilder.json().build();
+		};
+
+		Category[] categories = { new Category(1, "Vegetables"), new Category(2, "Fruits"), new Category(3, "Grains") };
+		products = new ArrayList<>(items);
+		for (int i = 0; i < items; i++)
+			products.add(new StockDetails(i + 1, "item-" + i, 10 + i % 90, 5f + i % 50, categories[i % 3],
+					"images/item-" + i + ".jpg"));
+
+		// four lines per order, ten farmers, as /admin/allorders returns them
+		Farmer[] farmers = new Farmer[10];
+		for (int f = 0; f < farmers.length; f++)
+			farmers[f] = new Farmer(f + 1, "Farmer" + f, "Bench", "farmer" + f + "@bench.test",
+					String.valueOf(9000000000L + f), "Plot " + f);
+		orderLines = new ArrayList<>(items);
+		Orders order = null;
+		for (int i = 0; i < items; i++) {
+			if (i % 4 == 0) {
+				order = new Orders();
+				order.setOrderId(i / 4 + 1);
+				order.setPaymentStatus(true);
+				order.setUser(new User(i / 4 + 1, "buyer" + i / 4 + "@bench.test", BCRYPT_LIKE,
+						String.valueOf(8000000000L + i), "Street " + i, "Buyer" + i, "Bench"));
+				order.setPlaceOrderDate(Date.valueOf(LocalDate.of(2026, 1, 1).plusDays(i % 300)));
+			}
+			OrderDetails line = new OrderDetails(i + 1, "item-" + i % 97, 1 + i % 5, 20.0 + i % 400, order);
+			line.setFarmer(farmers[i % farmers.length]);
+			orderLines.add(line);
+		}
+
+		System.out.printf("%n%s, %d items: products %d bytes (%d gzipped), order lines %d bytes (%d gzipped)%n", format,
+				items, size(products, false), size(products, true), size(orderLines, false), size(orderLines, true));
+	}
+
+	private int size(Object value, boolean gzip) throws Exception {
+		byte[] bytes = mapper.writeValueAsBytes(value);
+		if (!gzip)
+			return bytes.length;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+			zip.write(bytes);
+		}
+		return out.size();
+	}
+
+	@Benchmark
+	public byte[] products() throws Exception {
+		return mapper.writeValueAsBytes(products);
+	}
+
+	@Benchmark
+	public byte[] orderLines() throws Exception {
+		return mapper.writeValueAsBytes(orderLines);
+	}
+}
@@ -0,0 +1,47 @@
+package com.marketplace.datagen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Command line entry point: --url, --user and --password select the database
+ * (whose tables the backend has already created), everything else is a
+ * {@link DatasetSpec} option.
+ */
+public class DataGen {
+
+	public static void main(String[] args) throws Exception {
+		String url = "jdbc:mysql://localhost:3306/farmersmarket";
+		String user = "root";
+		String password = "";
+		List<String> specArgs = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.startsWith("--url="))
+				url = arg.substring("--url=".length());
+			else if (arg.startsWith("--user="))
+				user = arg.substring("--user=".length());
+			else if (arg.startsWith("--password="))
+				password = arg.substring("--password=".length());
+			else
+				specArgs.add(arg);
+		}
+		DatasetSpec spec = DatasetSpec.parse(specArgs.toArray(String[]::new));
+		// without it Connector/J sends a batch as one round trip per row
+		if (url.startsWith("jdbc:mysql:") && !url.contains("rewriteBatchedStatements"))
+			url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl(url);
+		config.setUsername(user);
+		config.setPassword(password);
+		config.setMaximumPoolSize(spec.threads() + 1);
+		try (HikariDataSource dataSource = new HikariDataSource(config)) {
+			System.out.println("datagen: " + spec.describe());
+			DataGenerator.Result result = new DataGenerator(dataSource, spec).generate();
+			System.out.println("datagen: " + result.describe());
+		}
+	}
+}
@@ -0,0 +1,419 @@
+package com.marketplace.datagen;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+/**
+ * Fills an empty schema (as created by the backend's migrations) with users,
+ * farmers, categories, products, orders and order lines. Rows are written with
+ * plain JDBC batches from several connections in parallel, in three phases so
+ * foreign keys are always satisfied: users/farmers/categories, then products,
+ * then orders with their lines.
+ * <p>
+ * Output depends only on the {@link DatasetSpec}, not on thread scheduling:
+ * every chunk draws from its own random stream, split off the seed in chunk
+ * order, and writes rows with explicit ids (order lines excepted, nothing
+ * refers to them). Product popularity and buyer activity are Zipf-distributed
+ * over a fixed permutation of ids, so the hot products are spread over many
+ * farmers rather than all belonging to the first one.
+ */
+public final class DataGenerator {
+
+	/** Generated buyers all log in with this password. */
+	public static final String PASSWORD = "password";
+	// BCrypt (strength 10) of PASSWORD; hashing per row would dominate the run
+	private static final String PASSWORD_HASH = "$2a$10$5.7psCpn1Wi6bBciCmC/2.E22pOjaGenU1Ujl5k4KN.IZ4rUcoqN.";
+
+	private static final String[] CATEGORIES = { "Vegetables", "Fruits", "Grains", "Pulses", "Dairy", "Spices" };
+	// per category: item names (at most 10 chars, order_item is 20 wide) and a base price per unit
+	private static final String[][] ITEMS = {
+			{ "Tomato", "Potato", "Onion", "Carrot", "Spinach", "Cabbage", "Brinjal", "Okra", "Radish" },
+			{ "Mango", "Banana", "Apple", "Guava", "Papaya", "Grapes", "Orange", "Chikoo" },
+			{ "Wheat", "Rice", "Millet", "Maize", "Sorghum", "Barley" },
+			{ "Lentil", "Chickpea", "Moong", "Urad", "Pigeonpea" },
+			{ "Milk", "Paneer", "Ghee", "Curd", "Butter" },
+			{ "Turmeric", "Chilli", "Ginger", "Garlic", "Coriander", "Cumin" } };
+	private static final float[] BASE_PRICE = { 30, 80, 40, 90, 120, 200 };
+	private static final String[] FIRST_NAMES = { "Aarav", "Vivaan", "Aditya", "Ananya", "Diya", "Ishaan", "Kavya",
+			"Meera", "Rohan", "Saanvi", "Arjun", "Priya", "Rahul", "Sneha", "Vikram", "Neha", "Karan", "Pooja" };
+	private static final String[] LAST_NAMES = { "Sharma", "Patil", "Khan", "Iyer", "Reddy", "Singh", "Joshi",
+			"Deshmukh", "Kulkarni", "Nair", "Gupta", "Pawar", "Shaikh", "Rao" };
+	private static final String[] CITIES = { "Pune", "Mumbai", "Nashik", "Nagpur", "Satara", "Kolhapur", "Solapur" };
+
+	private static final int ROW_CHUNK = 50_000;
+	private static final int ORDER_CHUNK = 10_000;
+	private static final int DELIVERY_DAYS = 3;
+
+	private final DataSource dataSource;
+	private final DatasetSpec spec;
+
+	public DataGenerator(DataSource dataSource, DatasetSpec spec) {
+		this.dataSource = dataSource;
+		this.spec = spec;
+	}
+
+	/** What was written and how long it took. */
+	public record Result(int users, int farmers, int products, int orders, long orderLines, long millis) {
+
+		public String describe() {
+			return users + " users, " + farmers + " farmers, " + products + " products, " + orders + " orders, "
+					+ orderLines + " order lines in " + millis / 1000.0 + "s ("
+					+ (millis == 0 ? 0 : orderLines * 1000 / millis) + " lines/s)";
+		}
+	}
+
+	public Result generate() throws SQLException, InterruptedException {
+		long started = System.currentTimeMillis();
+		checkEmpty();
+		Catalog catalog = new Catalog(spec);
+		SplittableRandom root = new SplittableRandom(spec.seed());
+		AtomicLong lines = new AtomicLong();
+		ExecutorService pool = Executors.newFixedThreadPool(spec.threads());
+		try {
+			List<Chunk> parents = new ArrayList<>();
+			parents.add(this::insertCategories);
+			for (int from = 1; from <= spec.farmers(); from += ROW_CHUNK) {
+				int first = from, last = Math.min(spec.farmers(), from + ROW_CHUNK - 1);
+				parents.add(() -> insertFarmers(first, last));
+			}
+			for (int from = 1; from <= spec.users(); from += ROW_CHUNK) {
+				int first = from, last = Math.min(spec.users(), from + ROW_CHUNK - 1);
+				SplittableRandom random = root.split();
+				parents.add(() -> insertUsers(first, last, random));
+			}
+			runAll(pool, parents);
+			System.out.println("datagen: " + spec.users() + " users, " + spec.farmers() + " farmers written");
+
+			List<Chunk> products = new ArrayList<>();
+			for (int from = 1; from <= spec.products(); from += ROW_CHUNK) {
+				int first = from, last = Math.min(spec.products(), from + ROW_CHUNK - 1);
+				SplittableRandom random = root.split();
+				products.add(() -> insertProducts(catalog, first, last, random));
+			}
+			runAll(pool, products);
+			System.out.println("datagen: " + spec.products() + " products written");
+
+			List<Chunk> orders = new ArrayList<>();
+			SeasonalCalendar calendar = new SeasonalCalendar(spec.from(), spec.to());
+			int chunks = (spec.orders() + ORDER_CHUNK - 1) / ORDER_CHUNK;
+			AtomicLong done = new AtomicLong();
+			for (int from = 1; from <= spec.orders(); from += ORDER_CHUNK) {
+				int first = from, last = Math.min(spec.orders(), from + ORDER_CHUNK - 1);
+				SplittableRandom random = root.split();
+				orders.add(() -> {
+					lines.addAndGet(insertOrders(catalog, calendar, first, last, random));
+					long n = done.incrementAndGet();
+					if (n * 10 / chunks != (n - 1) * 10 / chunks)
+						System.out.println("datagen: orders " + n * 100 / chunks + "% (" + lines.get() + " lines, "
+								+ (System.currentTimeMillis() - started) / 1000 + "s)");
+				});
+			}
+			runAll(pool, orders);
+		} finally {
+			pool.shutdownNow();
+		}
+		restartIdentities();
+		return new Result(spec.users(), spec.farmers(), spec.products(), spec.orders(), lines.get(),
+				System.currentTimeMillis() - started);
+	}
+
+	private void insertCategories() throws SQLException {
+		try (Connection con = dataSource.getConnection();
+				PreparedStatement ps = con.prepareStatement(
+						"insert into category (category_id, category_name) values (?, ?)")) {
+			for (int c = 0; c < CATEGORIES.length; c++) {
+				ps.setInt(1, c + 1);
+				ps.setString(2, CATEGORIES[c]);
+				ps.addBatch();
+			}
+			ps.executeBatch();
+		}
+	}
+
+	private void insertFarmers(int first, int last) throws SQLException {
+		String sql = "insert into farmer (farmer_id, firstname, lastname, email, phone_no, address) values (?, ?, ?, ?, ?, ?)";
+		inTransaction(con -> {
+			try (Batch batch = new Batch(con, sql)) {
+				for (int id = first; id <= last; id++) {
+					PreparedStatement ps = batch.ps;
+					ps.setInt(1, id);
+					ps.setString(2, FIRST_NAMES[id % FIRST_NAMES.length]);
+					ps.setString(3, LAST_NAMES[(id / FIRST_NAMES.length) % LAST_NAMES.length]);
+					ps.setString(4, "farmer" + id + "@example.com");
+					ps.setString(5, String.format("7%09d", id));
+					ps.setString(6, "Plot " + id + ", " + CITIES[id % CITIES.length]);
+					if (batch.add())
+						batch.flush();
+				}
+			}
+		});
+	}
+
+	private void insertUsers(int first, int last, SplittableRandom random) throws SQLException {
+		String sql = "insert into users (user_id, email, password, phone_no, address, firstname, lastname, is_admin, user_type)"
+				+ " values (?, ?, ?, ?, ?, ?, ?, false, 'BUYER')";
+		inTransaction(con -> {
+			try (Batch batch = new Batch(con, sql)) {
+				for (int id = first; id <= last; id++) {
+					PreparedStatement ps = batch.ps;
+					ps.setInt(1, id);
+					ps.setString(2, "user" + id + "@example.com");
+					ps.setString(3, PASSWORD_HASH);
+					ps.setString(4, String.format("8%09d", id));
+					ps.setString(5, (1 + random.nextInt(400)) + " Market Road, " + CITIES[random.nextInt(CITIES.length)]);
+					ps.setString(6, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+					ps.setString(7, LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+					if (batch.add())
+						batch.flush();
+				}
+			}
+		});
+	}
+
+	private void insertProducts(Catalog catalog, int first, int last, SplittableRandom random) throws SQLException {
+		String sql = "insert into stock_details (product_id, stock_item, quantity, price_per_unit, category_id, farmer_id)"
+				+ " values (?, ?, ?, ?, ?, ?)";
+		inTransaction(con -> {
+			try (Batch batch = new Batch(con, sql)) {
+				for (int id = first; id <= last; id++) {
+					PreparedStatement ps = batch.ps;
+					ps.setInt(1, id);
+					ps.setString(2, catalog.name(id));
+					ps.setInt(3, random.nextInt(500));
+					ps.setFloat(4, catalog.price[id]);
+					ps.setInt(5, catalog.category[id] + 1);
+					ps.setInt(6, catalog.farmer(id));
+					if (batch.add())
+						batch.flush();
+				}
+			}
+		});
+	}
+
+	/** Orders first..last with their lines; returns the number of lines written. */
+	private long insertOrders(Catalog catalog, SeasonalCalendar calendar, int first, int last, SplittableRandom random)
+			throws SQLException {
+		String orderSql = "insert into orders (order_id, user_id, payment_status, delivery_status, place_order_date, delivery_date)"
+				+ " values (?, ?, true, ?, ?, ?)";
+		String lineSql = "insert into order_details (order_id, farmer_id, order_item, quantity, amount, place_order_date)"
+				+ " values (?, ?, ?, ?, ?, ?)";
+		long[] written = new long[1];
+		inTransaction(con -> {
+			try (Batch orders = new Batch(con, orderSql); Batch lines = new Batch(con, lineSql)) {
+				for (int id = first; id <= last; id++) {
+					LocalDate placed = calendar.sample(random);
+					LocalDate delivery = placed.plusDays(DELIVERY_DAYS);
+					PreparedStatement ps = orders.ps;
+					ps.setInt(1, id);
+					ps.setInt(2, catalog.buyer(random));
+					ps.setBoolean(3, !delivery.isAfter(spec.to()));
+					ps.setDate(4, Date.valueOf(placed));
+					ps.setDate(5, Date.valueOf(delivery));
+					if (orders.add())
+						orders.flush();
+					int count = 1 + random.nextInt(2 * spec.linesPerOrder() - 1);
+					for (int l = 0; l < count; l++) {
+						int product = catalog.popularProduct(random);
+						int qty = 1 + random.nextInt(5);
+						PreparedStatement line = lines.ps;
+						line.setInt(1, id);
+						line.setInt(2, catalog.farmer(product));
+						line.setString(3, catalog.name(product));
+						line.setInt(4, qty);
+						line.setDouble(5, Math.round(catalog.price[product] * qty * 100) / 100.0);
+						line.setDate(6, Date.valueOf(placed));
+						// lines must not reach the database before their order
+						if (lines.add()) {
+							orders.flush();
+							lines.flush();
+						}
+					}
+					written[0] += count;
+				}
+				orders.flush();
+				lines.flush();
+			}
+		});
+		return written[0];
+	}
+
+	private void checkEmpty() throws SQLException {
+		try (Connection con = dataSource.getConnection(); Statement st = con.createStatement()) {
+			for (String table : new String[] { "users", "farmer", "category", "stock_details", "orders",
+					"order_details" }) {
+				try (ResultSet rs = st.executeQuery("select count(*) from " + table)) {
+					rs.next();
+					if (rs.getLong(1) > 0)
+						throw new IllegalStateException(
+								"table " + table + " already has rows; generate into an empty schema");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rows were written with explicit ids; MySQL moves AUTO_INCREMENT past them
+	 * by itself, H2 identity columns have to be told.
+	 */
+	private void restartIdentities() throws SQLException {
+		try (Connection con = dataSource.getConnection(); Statement st = con.createStatement()) {
+			if (!con.getMetaData().getDatabaseProductName().contains("H2"))
+				return;
+			st.execute("alter table users alter column user_id restart with " + (spec.users() + 1));
+			st.execute("alter table farmer alter column farmer_id restart with " + (spec.farmers() + 1));
+			st.execute("alter table category alter column category_id restart with " + (CATEGORIES.length + 1));
+			st.execute("alter table stock_details alter column product_id restart with " + (spec.products() + 1));
+			st.execute("alter table orders alter column order_id restart with " + (spec.orders() + 1));
+		}
+	}
+
+	private interface Chunk {
+		void run() throws SQLException;
+	}
+
+	private interface Work {
+		void run(Connection con) throws SQLException;
+	}
+
+	private void inTransaction(Work work) throws SQLException {
+		try (Connection con = dataSource.getConnection()) {
+			con.setAutoCommit(false);
+			try {
+				work.run(con);
+				con.commit();
+			} catch (SQLException | RuntimeException e) {
+				con.rollback();
+				throw e;
+			}
+		}
+	}
+
+	private static void runAll(ExecutorService pool, List<Chunk> chunks) throws SQLException, InterruptedException {
+		List<Callable<Void>> tasks = new ArrayList<>(chunks.size());
+		for (Chunk chunk : chunks)
+			tasks.add(() -> {
+				chunk.run();
+				return null;
+			});
+		for (Future<Void> f : pool.invokeAll(tasks)) {
+			try {
+				f.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof SQLException sql)
+					throw sql;
+				if (e.getCause() instanceof RuntimeException re)
+					throw re;
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	/** A prepared statement that executes every spec.batch() rows. */
+	private final class Batch implements AutoCloseable {
+
+		final PreparedStatement ps;
+		private int pending;
+
+		Batch(Connection con, String sql) throws SQLException {
+			this.ps = con.prepareStatement(sql);
+		}
+
+		/** Adds the current row; true once spec.batch() rows are pending and it is time to flush. */
+		boolean add() throws SQLException {
+			ps.addBatch();
+			return ++pending >= spec.batch();
+		}
+
+		void flush() throws SQLException {
+			if (pending > 0)
+				ps.executeBatch();
+			pending = 0;
+		}
+
+		@Override
+		public void close() throws SQLException {
+			flush();
+			ps.close();
+		}
+	}
+
+	/**
+	 * Per product: category, price and name, drawn once up front so order lines
+	 * in every chunk agree with the product rows. Product p belongs to farmer
+	 * (p - 1) / products-per-farmer + 1.
+	 */
+	private static final class Catalog {
+
+		final byte[] category;
+		final short[] item;
+		final float[] price;
+		private final int productsPerFarmer;
+		private final Zipf products;
+		private final long productStride;
+		private final Zipf buyers;
+		private final long buyerStride;
+		private final int productCount;
+		private final int userCount;
+
+		Catalog(DatasetSpec spec) {
+			productCount = spec.products();
+			userCount = spec.users();
+			productsPerFarmer = spec.productsPerFarmer();
+			category = new byte[productCount + 1];
+			item = new short[productCount + 1];
+			price = new float[productCount + 1];
+			SplittableRandom random = new SplittableRandom(spec.seed() ^ 0x5DEECE66DL);
+			for (int p = 1; p <= productCount; p++) {
+				int c = random.nextInt(CATEGORIES.length);
+				category[p] = (byte) c;
+				item[p] = (short) random.nextInt(ITEMS[c].length);
+				price[p] = Math.round(BASE_PRICE[c] * (0.6f + 0.8f * random.nextFloat()) * 100) / 100f;
+			}
+			products = new Zipf(productCount, spec.zipf());
+			productStride = stride(productCount);
+			buyers = new Zipf(userCount, spec.buyerZipf());
+			buyerStride = stride(userCount);
+		}
+
+		String name(int product) {
+			return ITEMS[category[product]][item[product]] + " #" + product;
+		}
+
+		int farmer(int product) {
+			return (product - 1) / productsPerFarmer + 1;
+		}
+
+		int popularProduct(SplittableRandom random) {
+			return (int) ((products.sample(random) - 1) * productStride % productCount) + 1;
+		}
+
+		int buyer(SplittableRandom random) {
+			return (int) ((buyers.sample(random) - 1) * buyerStride % userCount) + 1;
+		}
+
+		/** A step coprime to n near n / phi, so rank -> id is a scattered permutation. */
+		private static long stride(int n) {
+			long s = Math.max(1, (long) (n * 0.6180339887));
+			while (!BigInteger.valueOf(s).gcd(BigInteger.valueOf(n)).equals(BigInteger.ONE))
+				s++;
+			return s;
+		}
+	}
+}
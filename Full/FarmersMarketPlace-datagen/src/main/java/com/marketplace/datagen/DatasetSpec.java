@@ -0,0 +1,74 @@
+package com.marketplace.datagen;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dataset options, all --name=value:
+ * <pre>
+ * --users=200000            buyers
+ * --farmers=5000
+ * --products-per-farmer=40
+ * --orders=2500000
+ * --lines-per-order=4       mean lines per order (uniform 1 .. 2*mean-1), so ~10M lines by default
+ * --zipf=1.0                exponent of product popularity (0 = uniform)
+ * --buyer-zipf=0.6          exponent of buyer activity
+ * --from=2024-10-01 --to=2026-09-30   order dates, weighted by season, weekday and growth
+ * --seed=42                 same seed and volumes give the same rows
+ * --threads=&lt;cpus&gt;         insert threads (connections)
+ * --batch=1000              rows per JDBC batch
+ * </pre>
+ */
+public record DatasetSpec(int users, int farmers, int productsPerFarmer, int orders, int linesPerOrder, double zipf,
+		double buyerZipf, LocalDate from, LocalDate to, long seed, int threads, int batch) {
+
+	public DatasetSpec {
+		if (users < 1 || farmers < 1 || productsPerFarmer < 1 || orders < 0 || linesPerOrder < 1)
+			throw new IllegalArgumentException("users, farmers, products-per-farmer and lines-per-order must be"
+					+ " at least 1, orders at least 0");
+		if ((long) farmers * productsPerFarmer > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("farmers * products-per-farmer exceeds the product id range");
+		if (zipf < 0 || buyerZipf < 0)
+			throw new IllegalArgumentException("zipf exponents must not be negative");
+		if (to.isBefore(from))
+			throw new IllegalArgumentException("--to is before --from");
+		if (threads < 1 || batch < 1)
+			throw new IllegalArgumentException("threads and batch must be at least 1");
+	}
+
+	/** Parses --name=value options; anything not given keeps its default. */
+	public static DatasetSpec parse(String... args) {
+		Map<String, String> opts = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("="))
+				throw new IllegalArgumentException("expected --name=value, got " + arg);
+			int eq = arg.indexOf('=');
+			opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+		}
+		return new DatasetSpec(
+				Integer.parseInt(opts.getOrDefault("users", "200000")),
+				Integer.parseInt(opts.getOrDefault("farmers", "5000")),
+				Integer.parseInt(opts.getOrDefault("products-per-farmer", "40")),
+				Integer.parseInt(opts.getOrDefault("orders", "2500000")),
+				Integer.parseInt(opts.getOrDefault("lines-per-order", "4")),
+				Double.parseDouble(opts.getOrDefault("zipf", "1.0")),
+				Double.parseDouble(opts.getOrDefault("buyer-zipf", "0.6")),
+				LocalDate.parse(opts.getOrDefault("from", "2024-10-01")),
+				LocalDate.parse(opts.getOrDefault("to", "2026-09-30")),
+				Long.parseLong(opts.getOrDefault("seed", "42")),
+				Integer.parseInt(opts.getOrDefault("threads",
+						String.valueOf(Runtime.getRuntime().availableProcessors()))),
+				Integer.parseInt(opts.getOrDefault("batch", "1000")));
+	}
+
+	public int products() {
+		return farmers * productsPerFarmer;
+	}
+
+	public String describe() {
+		return users + " users, " + farmers + " farmers, " + products() + " products, " + orders + " orders (~"
+				+ (long) orders * linesPerOrder + " lines), zipf=" + zipf + ", buyer-zipf=" + buyerZipf + ", " + from
+				+ ".." + to + ", seed=" + seed + ", threads=" + threads + ", batch=" + batch;
+	}
+}
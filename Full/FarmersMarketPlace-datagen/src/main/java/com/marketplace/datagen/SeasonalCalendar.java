@@ -0,0 +1,42 @@
+package com.marketplace.datagen;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Order dates between two days, weighted the way a produce market's orders
+ * are: a main peak around the autumn harvest (early October), a smaller one in
+ * spring, busier weekends, and volume growing by half over the whole range.
+ */
+final class SeasonalCalendar {
+
+	private final LocalDate from;
+	private final double[] cumulative;
+
+	SeasonalCalendar(LocalDate from, LocalDate to) {
+		this.from = from;
+		int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+		cumulative = new double[days];
+		double total = 0;
+		for (int d = 0; d < days; d++) {
+			LocalDate date = from.plusDays(d);
+			double angle = 2 * Math.PI * date.getDayOfYear() / 365.25;
+			double season = 1 + 0.4 * Math.cos(angle - 2 * Math.PI * 280 / 365.25)
+					+ 0.15 * Math.cos(2 * angle - 2 * Math.PI * 2 * 100 / 365.25);
+			DayOfWeek dow = date.getDayOfWeek();
+			double weekday = dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY ? 1.3 : 1.0;
+			double growth = 1 + 0.5 * d / Math.max(1, days - 1);
+			total += season * weekday * growth;
+			cumulative[d] = total;
+		}
+	}
+
+	LocalDate sample(SplittableRandom random) {
+		double x = random.nextDouble() * cumulative[cumulative.length - 1];
+		int i = Arrays.binarySearch(cumulative, x);
+		return from.plusDays(i >= 0 ? i : -i - 1);
+	}
+}
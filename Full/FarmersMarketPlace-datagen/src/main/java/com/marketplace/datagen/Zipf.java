@@ -0,0 +1,63 @@
+package com.marketplace.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zipf-distributed ranks 1..n (P(k) proportional to 1/k^s) by rejection
+ * inversion (Hörmann and Derflinger, 1996): constant time and no table, so a
+ * million-product catalogue costs nothing to set up. Immutable and safe to
+ * share; the caller supplies the random source.
+ */
+final class Zipf {
+
+	private final int n;
+	private final double s;
+	private final double hIntegralX1;
+	private final double hIntegralN;
+	private final double squeeze;
+
+	Zipf(int n, double s) {
+		this.n = n;
+		this.s = s;
+		this.hIntegralX1 = hIntegral(1.5) - 1;
+		this.hIntegralN = hIntegral(n + 0.5);
+		this.squeeze = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+	}
+
+	/** A rank in 1..n, 1 being the most frequent. */
+	int sample(SplittableRandom random) {
+		while (true) {
+			double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+			double x = hIntegralInverse(u);
+			int k = (int) (x + 0.5);
+			if (k < 1)
+				k = 1;
+			else if (k > n)
+				k = n;
+			if (k - x <= squeeze || u >= hIntegral(k + 0.5) - h(k))
+				return k;
+		}
+	}
+
+	private double h(double x) {
+		return Math.exp(-s * Math.log(x));
+	}
+
+	private double hIntegral(double x) {
+		double logX = Math.log(x);
+		return expm1OverX((1 - s) * logX) * logX;
+	}
+
+	private double hIntegralInverse(double x) {
+		double t = Math.max(x * (1 - s), -1);
+		return Math.exp(log1pOverX(t) * x);
+	}
+
+	private static double log1pOverX(double x) {
+		return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1 / 3.0 - 0.25 * x));
+	}
+
+	private static double expm1OverX(double x) {
+		return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+	}
+}
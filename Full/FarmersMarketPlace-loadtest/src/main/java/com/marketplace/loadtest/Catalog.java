@@ -0,0 +1,92 @@
+package com.marketplace.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Ids and credentials the scenarios pick from, discovered through the public API
+ * so the same run works against the in-process backend or a --target.
+ */
+final class Catalog {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+	private static final int MAX_FARMERS = 200;
+
+	/** farmerId, productId pairs. */
+	final List<int[]> products = new ArrayList<>();
+	final List<String> tokens = new ArrayList<>();
+	/** Admin token of the seller scenario; empty if the admin could not log in. */
+	String adminToken = "";
+
+	static Catalog discover(HttpClient client, String baseUrl, LoadTestConfig config) throws Exception {
+		Catalog catalog = new Catalog();
+		List<Map<String, Object>> farmers = getList(client, baseUrl + "/farmer/list");
+		for (Map<String, Object> farmer : farmers.subList(0, Math.min(MAX_FARMERS, farmers.size()))) {
+			int farmerId = ((Number) farmer.get("farmerId")).intValue();
+			for (Map<String, Object> product : getList(client, baseUrl + "/farmer/products/" + farmerId))
+				catalog.products.add(new int[] { farmerId, ((Number) product.get("id")).intValue() });
+		}
+		if (catalog.products.isEmpty())
+			throw new IllegalStateException("no products found at " + baseUrl);
+
+		for (int i = 0; i < config.users(); i++) {
+			String email = "loadtest-" + config.seed() + "-" + i + "@load.test";
+			String password = "load-" + i;
+			post(client, baseUrl + "/user/register", JSON.writeValueAsString(Map.of("email", email, "password",
+					password, "firstname", "Load", "lastname", "User" + i, "phoneNo", "8" + (100000000 + i))));
+			HttpResponse<String> login = post(client, baseUrl + "/user/login",
+					JSON.writeValueAsString(Map.of("email", email, "password", password)));
+			login.headers().firstValue("Authorization").ifPresent(catalog.tokens::add);
+		}
+		if (catalog.tokens.isEmpty() && config.users() > 0)
+			throw new IllegalStateException("could not log in any load-test user at " + baseUrl);
+
+		// fails harmlessly when the admin is already registered
+		post(client, baseUrl + "/user/register", JSON.writeValueAsString(Map.of("email", config.adminEmail(),
+				"password", config.adminPassword(), "firstname", "Load", "lastname", "Admin", "phoneNo", "8099999999")));
+		HttpResponse<String> admin = post(client, baseUrl + "/user/login",
+				JSON.writeValueAsString(Map.of("email", config.adminEmail(), "password", config.adminPassword())));
+		admin.headers().firstValue("Authorization").ifPresent(token -> catalog.adminToken = token);
+		if (catalog.adminToken.isEmpty() && config.mix().getOrDefault("seller", 0) > 0)
+			throw new IllegalStateException("could not log in admin " + config.adminEmail() + " at " + baseUrl);
+		return catalog;
+	}
+
+	/**
+	 * Popular products get most of the traffic: the index is skewed towards the
+	 * front of the list (roughly a power law with exponent 2).
+	 */
+	int[] product(SplittableRandom random) {
+		double u = random.nextDouble();
+		return products.get((int) (products.size() * u * u));
+	}
+
+	String token(SplittableRandom random) {
+		return tokens.isEmpty() ? "" : tokens.get(random.nextInt(tokens.size()));
+	}
+
+	private static List<Map<String, Object>> getList(HttpClient client, String url) throws Exception {
+		HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url))
+				.timeout(Duration.ofSeconds(30)).GET().build(), HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200)
+			throw new IllegalStateException("GET " + url + " returned " + response.statusCode());
+		return JSON.readValue(response.body(), new TypeReference<List<Map<String, Object>>>() {
+		});
+	}
+
+	private static HttpResponse<String> post(HttpClient client, String url, String json) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json)).build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+}
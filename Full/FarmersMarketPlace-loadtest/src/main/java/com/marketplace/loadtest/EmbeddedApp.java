@@ -0,0 +1,95 @@
+package com.marketplace.loadtest;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.UUID;
+
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.marketplace.FarmersMarketPlaceApplication;
+import com.marketplace.datagen.DataGenerator;
+import com.marketplace.datagen.DatasetSpec;
+
+/**
+ * The backend started in this JVM on a random port against a private in-memory
+ * H2 database, filled by the data generator with farmers, products, buyers and
+ * an order history (so seller stats and sales have something to aggregate).
+ * Login/registration rate limits are raised because every virtual user comes
+ * from the same address, and the JWT signing key is generated for the run.
+ * Order placement renders a receipt with fm.jpg from the working directory,
+ * so a placeholder is created there for the run if none exists.
+ */
+final class EmbeddedApp implements AutoCloseable {
+
+	private static final Path LOGO = Path.of("fm.jpg");
+	private static final Path RECEIPT = Path.of("receipt.pdf");
+
+	private final ConfigurableApplicationContext ctx;
+	private final boolean createdLogo;
+	private final boolean receiptExisted;
+	final String baseUrl;
+
+	private EmbeddedApp(ConfigurableApplicationContext ctx, boolean createdLogo, boolean receiptExisted) {
+		this.ctx = ctx;
+		this.createdLogo = createdLogo;
+		this.receiptExisted = receiptExisted;
+		int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+		this.baseUrl = "http://localhost:" + port + "/FarmersMarketplace";
+	}
+
+	static EmbeddedApp start(LoadTestConfig config) throws IOException, SQLException, InterruptedException {
+		boolean createdLogo = !Files.exists(LOGO);
+		if (createdLogo)
+			ImageIO.write(new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB), "jpg", LOGO.toFile());
+		boolean receiptExisted = Files.exists(RECEIPT);
+		String db = "load" + UUID.randomUUID().toString().replace("-", "");
+		byte[] secret = new byte[48];
+		new SecureRandom().nextBytes(secret);
+		// passed as arguments so they win over application.properties
+		ConfigurableApplicationContext ctx = new SpringApplicationBuilder(FarmersMarketPlaceApplication.class)
+				.run("--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:" + db + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=",
+						"--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+						"--spring.jpa.hibernate.ddl-auto=validate",
+						"--spring.main.banner-mode=off",
+						"--logging.level.root=WARN",
+						"--ratelimit.login.ip.capacity=100000",
+						"--ratelimit.login.ip.per-minute=100000",
+						"--ratelimit.register.ip.capacity=100000",
+						"--ratelimit.register.ip.per-minute=100000",
+						"--jwt.secret=" + Base64.getEncoder().encodeToString(secret));
+		DataGenerator.Result data = new DataGenerator(ctx.getBean(DataSource.class), DatasetSpec.parse(
+				"--farmers=" + config.farmers(), "--products-per-farmer=" + config.productsPerFarmer(),
+				"--users=" + Math.max(1, config.orders() / 20), "--orders=" + config.orders(),
+				"--seed=" + config.seed())).generate();
+		System.out.println("loadtest dataset: " + data.describe());
+		return new EmbeddedApp(ctx, createdLogo, receiptExisted);
+	}
+
+	@Override
+	public void close() {
+		ctx.close();
+		try {
+			if (createdLogo)
+				Files.deleteIfExists(LOGO);
+			if (!receiptExisted)
+				Files.deleteIfExists(RECEIPT);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
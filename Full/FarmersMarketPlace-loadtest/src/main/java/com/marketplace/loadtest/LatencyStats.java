@@ -0,0 +1,51 @@
+package com.marketplace.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per endpoint (and per scenario) histograms in microseconds. Response time is
+ * measured from when the request was supposed to start under the arrival
+ * schedule, so time spent queued behind a slow server is counted (the
+ * coordinated-omission correction). Service time is measured from the actual
+ * send and is kept alongside to show how much of the latency is queueing.
+ */
+final class LatencyStats {
+
+	private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+	static final class Entry {
+		final Histogram response = new ConcurrentHistogram(MAX_MICROS, 3);
+		final Histogram service = new ConcurrentHistogram(MAX_MICROS, 3);
+		final LongAdder errors = new LongAdder();
+		final LongAdder dropped = new LongAdder();
+		volatile String lastError;
+	}
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	void record(String name, long responseNanos, long serviceNanos, String error) {
+		Entry e = entries.computeIfAbsent(name, k -> new Entry());
+		e.response.recordValue(Math.min(MAX_MICROS, TimeUnit.NANOSECONDS.toMicros(responseNanos)));
+		e.service.recordValue(Math.min(MAX_MICROS, TimeUnit.NANOSECONDS.toMicros(serviceNanos)));
+		if (error != null) {
+			e.errors.increment();
+			e.lastError = error;
+		}
+	}
+
+	void dropped(String name) {
+		entries.computeIfAbsent(name, k -> new Entry()).dropped.increment();
+	}
+
+	/** Sorted by name so reports line up run to run. */
+	Map<String, Entry> snapshot() {
+		return new TreeMap<>(entries);
+	}
+}
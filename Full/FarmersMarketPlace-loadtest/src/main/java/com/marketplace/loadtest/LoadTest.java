@@ -0,0 +1,60 @@
+package com.marketplace.loadtest;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Entry point: boots the backend in-process (or uses --target), discovers ids
+ * and logs in the buyer accounts, drives the open workload and writes the
+ * report. See {@link LoadTestConfig} for the options.
+ */
+public class LoadTest {
+
+	public static void main(String[] args) throws Exception {
+		LoadTestConfig config = LoadTestConfig.parse(args);
+		PrintStream console = System.out;
+		EmbeddedApp app = null;
+		String baseUrl = config.target();
+		if (baseUrl.isEmpty()) {
+			// the backend logs every request to stdout; keep that out of the report
+			Path appLog = Path.of("target", "loadtest-app.log");
+			Files.createDirectories(appLog.getParent());
+			System.setOut(new PrintStream(new FileOutputStream(appLog.toFile()), false));
+			console.println("starting backend in-process (stdout -> " + appLog + ")");
+			app = EmbeddedApp.start(config);
+			baseUrl = app.baseUrl;
+		}
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			HttpClient client = HttpClient.newBuilder().executor(executor).version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(Duration.ofSeconds(5)).build();
+			Catalog catalog = Catalog.discover(client, baseUrl, config);
+			console.println(config.describe());
+			console.println(catalog.products.size() + " products, " + catalog.tokens.size() + " logged-in buyers; running "
+					+ (config.warmupSeconds() + config.durationSeconds()) + "s");
+
+			LatencyStats stats = new LatencyStats();
+			Instant startedAt = Instant.now();
+			OpenLoopDriver driver = new OpenLoopDriver(client, baseUrl, config, catalog, stats);
+			driver.run();
+
+			String report = Report.render(config, stats, driver.scheduled(), startedAt);
+			if (config.report().getParent() != null)
+				Files.createDirectories(config.report().getParent());
+			Files.writeString(config.report(), report);
+			console.println();
+			console.print(report);
+			console.println("\nreport written to " + config.report());
+		} finally {
+			if (app != null)
+				app.close();
+		}
+		System.exit(0);
+	}
+}
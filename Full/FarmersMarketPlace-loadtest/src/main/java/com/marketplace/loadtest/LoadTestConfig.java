@@ -0,0 +1,75 @@
+package com.marketplace.loadtest;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, all --name=value:
+ * <pre>
+ * --rate=50            arrivals per second (open model: independent of response times)
+ * --arrivals=poisson   poisson | uniform inter-arrival times
+ * --duration=60        measured seconds
+ * --warmup=10          seconds run before measuring, not recorded
+ * --mix=browse:40,search:20,cart:20,checkout:5,seller:15   scenario weights
+ * --target=            base URL of a running backend (e.g. http://host:8080/FarmersMarketplace);
+ *                      empty boots the backend in-process on H2
+ * --farmers=50 --products-per-farmer=40 --orders=20000   dataset generated into the in-process backend
+ * --users=20           buyer accounts registered and logged in for cart and checkout
+ * --admin=admin@admin.com:admin   admin login of the seller scenario, which reads every farmer's
+ *                      dashboard; registered first in case it does not exist yet
+ * --max-in-flight=5000 arrivals beyond this many outstanding scenarios are dropped and counted
+ * --seed=42            seeds arrivals, scenario choice and ids
+ * --report=target/loadtest-report.txt
+ * --baseline=          earlier report to compare p99 against
+ * </pre>
+ */
+record LoadTestConfig(double rate, boolean poisson, int durationSeconds, int warmupSeconds, Map<String, Integer> mix,
+		String target, int farmers, int productsPerFarmer, int orders, int users, String adminEmail,
+		String adminPassword, int maxInFlight, long seed, Path report, Path baseline) {
+
+	static LoadTestConfig parse(String[] args) {
+		Map<String, String> opts = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("="))
+				throw new IllegalArgumentException("expected --name=value, got " + arg);
+			int eq = arg.indexOf('=');
+			opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+		}
+		Map<String, Integer> mix = new LinkedHashMap<>();
+		for (String part : opts.getOrDefault("mix", "browse:40,search:20,cart:20,checkout:5,seller:15").split(",")) {
+			String[] kv = part.split(":");
+			mix.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+		}
+		String baseline = opts.getOrDefault("baseline", "");
+		String admin = opts.getOrDefault("admin", "admin@admin.com:admin");
+		int colon = admin.indexOf(':');
+		if (colon < 0)
+			throw new IllegalArgumentException("expected --admin=email:password, got " + admin);
+		return new LoadTestConfig(
+				Double.parseDouble(opts.getOrDefault("rate", "50")),
+				!"uniform".equals(opts.getOrDefault("arrivals", "poisson")),
+				Integer.parseInt(opts.getOrDefault("duration", "60")),
+				Integer.parseInt(opts.getOrDefault("warmup", "10")),
+				mix,
+				opts.getOrDefault("target", ""),
+				Integer.parseInt(opts.getOrDefault("farmers", "50")),
+				Integer.parseInt(opts.getOrDefault("products-per-farmer", "40")),
+				Integer.parseInt(opts.getOrDefault("orders", "20000")),
+				Integer.parseInt(opts.getOrDefault("users", "20")),
+				admin.substring(0, colon),
+				admin.substring(colon + 1),
+				Integer.parseInt(opts.getOrDefault("max-in-flight", "5000")),
+				Long.parseLong(opts.getOrDefault("seed", "42")),
+				Path.of(opts.getOrDefault("report", "target/loadtest-report.txt")),
+				baseline.isEmpty() ? null : Path.of(baseline));
+	}
+
+	String describe() {
+		return "rate=" + rate + "/s " + (poisson ? "poisson" : "uniform") + ", duration=" + durationSeconds
+				+ "s (+" + warmupSeconds + "s warmup), mix=" + mix + ", users=" + users + ", seed=" + seed
+				+ ", target=" + (target.isEmpty() ? "in-process H2 (" + farmers + " farmers x " + productsPerFarmer
+						+ " products, " + orders + " orders)" : target);
+	}
+}
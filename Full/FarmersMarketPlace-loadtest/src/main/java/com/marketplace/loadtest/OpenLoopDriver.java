@@ -0,0 +1,109 @@
+package com.marketplace.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open workload: arrivals follow a fixed schedule (poisson or uniform at
+ * --rate) whether or not earlier requests have completed, the way real users
+ * keep arriving when the server slows down. Requests are sent asynchronously,
+ * so one slow response never delays the next arrival; if the dispatcher itself
+ * runs late, latency is still measured from the scheduled time.
+ */
+final class OpenLoopDriver {
+
+	private final HttpClient client;
+	private final String baseUrl;
+	private final LoadTestConfig config;
+	private final Catalog catalog;
+	private final LatencyStats stats;
+	private final List<Scenario> weighted = new ArrayList<>();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private long scheduled;
+
+	OpenLoopDriver(HttpClient client, String baseUrl, LoadTestConfig config, Catalog catalog, LatencyStats stats) {
+		this.client = client;
+		this.baseUrl = baseUrl;
+		this.config = config;
+		this.catalog = catalog;
+		this.stats = stats;
+		Map<String, Scenario> all = Scenario.all();
+		config.mix().forEach((name, weight) -> {
+			Scenario s = all.get(name);
+			if (s == null)
+				throw new IllegalArgumentException("unknown scenario " + name + ", expected one of " + all.keySet());
+			for (int i = 0; i < weight; i++)
+				weighted.add(s);
+		});
+	}
+
+	/** Runs warmup plus the measured window, then waits (up to a minute) for stragglers. */
+	void run() {
+		SplittableRandom random = new SplittableRandom(config.seed());
+		double gapNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+		long start = System.nanoTime();
+		long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+		long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+		double next = start;
+		while (next < end) {
+			long intended = (long) next;
+			long wait;
+			while ((wait = intended - System.nanoTime()) > 0)
+				LockSupport.parkNanos(wait);
+			dispatch(intended, random.split(), intended >= measureFrom);
+			next += config.poisson() ? -Math.log(1 - random.nextDouble()) * gapNanos : gapNanos;
+		}
+		long drainUntil = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+		while (inFlight.get() > 0 && System.nanoTime() < drainUntil)
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+	}
+
+	long scheduled() {
+		return scheduled;
+	}
+
+	private void dispatch(long intended, SplittableRandom random, boolean record) {
+		Scenario scenario = weighted.get(random.nextInt(weighted.size()));
+		if (record)
+			scheduled++;
+		if (inFlight.get() >= config.maxInFlight()) {
+			if (record)
+				stats.dropped("scenario " + scenario.name());
+			return;
+		}
+		int[] product = catalog.product(random);
+		Scenario.Arrival arrival = new Scenario.Arrival(product[0], product[1], 1 + random.nextInt(5),
+				catalog.token(random), catalog.adminToken);
+		inFlight.incrementAndGet();
+		step(scenario, 0, arrival, intended, 0, intended, record);
+	}
+
+	private void step(Scenario scenario, int index, Scenario.Arrival arrival, long scenarioStart, long firstSent,
+			long stepStart, boolean record) {
+		Scenario.Step step = scenario.steps().get(index);
+		long sent = System.nanoTime();
+		long scenarioSent = index == 0 ? sent : firstSent;
+		client.sendAsync(step.request().apply(baseUrl, arrival), HttpResponse.BodyHandlers.discarding())
+				.whenComplete((response, failure) -> {
+					long now = System.nanoTime();
+					String error = failure != null ? failure.getClass().getSimpleName()
+							: response.statusCode() >= 400 ? "HTTP " + response.statusCode() : null;
+					if (record)
+						stats.record(step.endpoint(), now - stepStart, now - sent, error);
+					if (error == null && index + 1 < scenario.steps().size()) {
+						step(scenario, index + 1, arrival, scenarioStart, scenarioSent, now, record);
+						return;
+					}
+					if (record)
+						stats.record("scenario " + scenario.name(), now - scenarioStart, now - scenarioSent, error);
+					inFlight.decrementAndGet();
+				});
+	}
+}
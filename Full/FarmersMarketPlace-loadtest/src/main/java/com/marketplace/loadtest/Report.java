@@ -0,0 +1,83 @@
+package com.marketplace.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Fixed-width text report, one row per endpoint and per scenario. Columns are
+ * separated by at least two spaces so a later run can read an earlier report
+ * back (--baseline) and show the p99 change next to each row.
+ */
+final class Report {
+
+	private static final String HEADER_FORMAT = "%-46s  %8s  %7s  %7s  %8s  %9s  %9s  %9s  %9s  %9s  %9s%s%n";
+	private static final String ROW_FORMAT = "%-46s  %8d  %7d  %7d  %8.1f  %9.2f  %9.2f  %9.2f  %9.2f  %9.2f  %9.2f%s%n";
+
+	private Report() {
+	}
+
+	static String render(LoadTestConfig config, LatencyStats stats, long scheduled, Instant startedAt)
+			throws IOException {
+		Map<String, Double> baselineP99 = config.baseline() == null ? Map.of() : readP99(config.baseline());
+		StringBuilder out = new StringBuilder();
+		out.append("# Farmers Marketplace load test, started ").append(startedAt).append('\n');
+		out.append("# ").append(config.describe()).append('\n');
+		out.append("# JVM ").append(Runtime.version()).append(", ").append(Runtime.getRuntime().availableProcessors())
+				.append(" cpus\n");
+		out.append("# scheduled arrivals in the measured window: ").append(scheduled).append('\n');
+		out.append("# latencies in ms; p50..max are response time from the scheduled start (coordinated-omission\n");
+		out.append("# corrected), svc.p99 is service time from the actual send\n");
+		if (config.baseline() != null)
+			out.append("# baseline: ").append(config.baseline()).append('\n');
+		out.append('\n');
+		out.append(String.format(HEADER_FORMAT, "endpoint", "count", "errors", "dropped", "rate/s", "p50", "p90", "p99",
+				"p99.9", "max", "svc.p99", config.baseline() == null ? "" : "  p99 vs baseline"));
+		for (Map.Entry<String, LatencyStats.Entry> e : stats.snapshot().entrySet()) {
+			LatencyStats.Entry entry = e.getValue();
+			Histogram h = entry.response;
+			double p99 = ms(h.getValueAtPercentile(99));
+			String delta = "";
+			if (config.baseline() != null) {
+				Double before = baselineP99.get(e.getKey());
+				delta = before == null || before == 0 ? "  n/a" : String.format("  %+.1f%%", (p99 - before) / before * 100);
+			}
+			out.append(String.format(ROW_FORMAT, e.getKey(), h.getTotalCount(), entry.errors.sum(),
+					entry.dropped.sum(), h.getTotalCount() / (double) config.durationSeconds(),
+					ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), p99,
+					ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()), ms(entry.service.getValueAtPercentile(99)),
+					delta));
+		}
+		boolean anyErrors = false;
+		for (Map.Entry<String, LatencyStats.Entry> e : stats.snapshot().entrySet()) {
+			if (e.getValue().lastError == null)
+				continue;
+			if (!anyErrors)
+				out.append("\n# last error per endpoint\n");
+			anyErrors = true;
+			out.append("# ").append(e.getKey()).append(": ").append(e.getValue().lastError).append('\n');
+		}
+		return out.toString();
+	}
+
+	private static double ms(long micros) {
+		return micros / 1000.0;
+	}
+
+	private static Map<String, Double> readP99(Path baseline) throws IOException {
+		Map<String, Double> p99 = new HashMap<>();
+		for (String line : Files.readAllLines(baseline)) {
+			if (line.isBlank() || line.startsWith("#") || line.startsWith("endpoint"))
+				continue;
+			String[] cols = line.trim().split("\\s{2,}");
+			if (cols.length >= 11)
+				p99.put(cols[0], Double.parseDouble(cols[7]));
+		}
+		return p99;
+	}
+}
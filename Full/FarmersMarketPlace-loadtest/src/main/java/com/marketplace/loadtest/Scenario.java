@@ -0,0 +1,70 @@
+package com.marketplace.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * One user journey: requests issued one after another, each step starting when
+ * the previous response has arrived. Steps are named by endpoint template so
+ * their latencies aggregate across ids.
+ */
+record Scenario(String name, List<Step> steps) {
+
+	record Step(String endpoint, BiFunction<String, Arrival, HttpRequest> request) {
+	}
+
+	/** What a single arrival works on, chosen up front from its own seeded random. */
+	record Arrival(int farmerId, int productId, int qty, String token, String adminToken) {
+	}
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	static Map<String, Scenario> all() {
+		return Map.of(
+				"browse", new Scenario("browse", List.of(
+						get("GET /farmer/list", a -> "/farmer/list"),
+						get("GET /farmer/products/{farmerId}", a -> "/farmer/products/" + a.farmerId()))),
+				"search", new Scenario("search", List.of(
+						// the frontend filters the full list client-side, then opens the product
+						get("GET /farmer/allproducts", a -> "/farmer/allproducts"),
+						get("GET /farmer/products/{farmerId}/{productId}",
+								a -> "/farmer/products/" + a.farmerId() + "/" + a.productId()))),
+				"cart", new Scenario("cart", List.of(addToCart())),
+				"checkout", new Scenario("checkout", List.of(
+						addToCart(),
+						new Step("GET /user/checkout", (base, a) -> HttpRequest
+								.newBuilder(URI.create(base + "/user/checkout")).timeout(TIMEOUT)
+								.header("Authorization", a.token()).GET().build()),
+						new Step("POST /user/placeorder", (base, a) -> HttpRequest
+								.newBuilder(URI.create(base + "/user/placeorder")).timeout(TIMEOUT)
+								.header("Authorization", a.token()).POST(HttpRequest.BodyPublishers.noBody()).build()))),
+				"seller", new Scenario("seller", List.of(
+						seller("GET /seller/stats/{farmerId}", a -> "/seller/stats/" + a.farmerId()),
+						seller("GET /seller/sales/{farmerId}", a -> "/seller/sales/" + a.farmerId()),
+						seller("GET /seller/products/{farmerId}", a -> "/seller/products/" + a.farmerId()))));
+	}
+
+	// carts belong to the buyer of the token
+	private static Step addToCart() {
+		return new Step("POST /user/addtocart/{productId}", (base, a) -> HttpRequest
+				.newBuilder(URI.create(base + "/user/addtocart/" + a.productId() + "?qty=" + a.qty()))
+				.timeout(TIMEOUT).header("Authorization", a.token()).POST(HttpRequest.BodyPublishers.noBody())
+				.build());
+	}
+
+	// a seller may only read its own farmer, the admin token reads any of them
+	private static Step seller(String endpoint, Function<Arrival, String> path) {
+		return new Step(endpoint, (base, a) -> HttpRequest.newBuilder(URI.create(base + path.apply(a)))
+				.timeout(TIMEOUT).header("Authorization", a.adminToken()).GET().build());
+	}
+
+	private static Step get(String endpoint, Function<Arrival, String> path) {
+		return new Step(endpoint,
+				(base, a) -> HttpRequest.newBuilder(URI.create(base + path.apply(a))).timeout(TIMEOUT).GET().build());
+	}
+}
@@ -10,3 +10,9 @@ USE farmersmarket;
 
 -- Show that database was created
 SHOW DATABASES;
+
+-- Passwords are stored as BCrypt hashes (60 chars). On databases created
+-- before hashing was introduced, widen the column once (ddl-auto=update does
+-- not change column lengths). Existing plain-text passwords are re-hashed on
+-- the user's next login.
+-- ALTER TABLE users MODIFY password VARCHAR(100);
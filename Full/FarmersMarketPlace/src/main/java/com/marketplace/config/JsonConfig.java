@@ -0,0 +1,42 @@
+package com.marketplace.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.marketplace.dto.SparseFields;
+
+@Configuration
+public class JsonConfig {
+
+	// the DTOs carry @JsonFilter; unless a request picked fields, write them whole
+	@Bean
+	public Jackson2ObjectMapperBuilderCustomizer sparseFieldsDefaultFilter() {
+		return builder -> builder.filters(
+				new SimpleFilterProvider().addFilter(SparseFields.FILTER, SimpleBeanPropertyFilter.serializeAll()));
+	}
+
+	/*
+	 * Binary encodings of the same responses, picked by the Accept header. Spring
+	 * MVC would register both converters on its own with a plain mapper; these
+	 * replace them with mappers from Boot's builder so they share the JSON
+	 * mapper's settings, including the filter above. The builder bean is a
+	 * prototype, so each gets its own.
+	 */
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+}
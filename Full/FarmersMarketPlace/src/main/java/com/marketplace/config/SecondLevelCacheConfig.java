@@ -0,0 +1,103 @@
+package com.marketplace.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * Hibernate second-level cache for reference data (categories, farmer
+ * profiles). Regions are declared here, bounded in entries and expiring after
+ * a TTL from application.properties, and Hibernate is handed this JCache
+ * CacheManager instead of creating its own (undeclared regions fail startup).
+ * Writes through the EntityManager keep the regions coherent; the TTL bounds
+ * staleness after changes made directly in the database, and
+ * DELETE /actuator/l2cache clears everything at once.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+	public static final String CATEGORY = "category";
+	public static final String CATEGORY_BY_NAME = "category-by-name";
+	public static final String FARMER = "farmer";
+	public static final String FARMER_BY_EMAIL = "farmer-by-email";
+	// Hibernate's own names for cached query results and per-table change timestamps
+	public static final String QUERY_RESULTS = "default-query-results-region";
+	public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+	@Value("${l2cache.category.max-entries:1000}")
+	private long categoryMaxEntries;
+
+	@Value("${l2cache.category.ttl-minutes:60}")
+	private long categoryTtlMinutes;
+
+	@Value("${l2cache.farmer.max-entries:10000}")
+	private long farmerMaxEntries;
+
+	@Value("${l2cache.farmer.ttl-minutes:30}")
+	private long farmerTtlMinutes;
+
+	@Value("${l2cache.query.max-entries:1000}")
+	private long queryMaxEntries;
+
+	@Value("${l2cache.query.ttl-minutes:10}")
+	private long queryTtlMinutes;
+
+	@Bean(destroyMethod = "close")
+	public CacheManager secondLevelCacheManager() {
+		ConfigurationBuilder config = ConfigurationBuilder.newConfigurationBuilder()
+				.withCache(CATEGORY, region(categoryMaxEntries, categoryTtlMinutes))
+				.withCache(CATEGORY_BY_NAME, region(categoryMaxEntries, categoryTtlMinutes))
+				.withCache(FARMER, region(farmerMaxEntries, farmerTtlMinutes))
+				.withCache(FARMER_BY_EMAIL, region(farmerMaxEntries, farmerTtlMinutes))
+				.withCache(QUERY_RESULTS, region(queryMaxEntries, queryTtlMinutes))
+				// one entry per table; must never expire or be evicted, or cached queries could outlive a change
+				.withCache(UPDATE_TIMESTAMPS, CacheConfigurationBuilder
+						.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10_000))
+						.withExpiry(ExpiryPolicyBuilder.noExpiration()));
+		EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching
+				.getCachingProvider(EhcacheCachingProvider.class.getName());
+		// a name of its own, so several application contexts in one JVM (tests, benchmarks) don't share regions
+		CacheManager manager = provider.getCacheManager(URI.create("urn:l2cache:" + UUID.randomUUID()),
+				config.build());
+		for (String name : manager.getCacheNames())
+			manager.enableStatistics(name, true);
+		return manager;
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer secondLevelCacheHibernateProperties(CacheManager secondLevelCacheManager) {
+		return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+	}
+
+	/** cache.gets (hit/miss), cache.puts, cache.evictions, cache.removals per region. */
+	@Bean
+	public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+		return registry -> {
+			for (String name : secondLevelCacheManager.getCacheNames())
+				JCacheMetrics.monitor(registry, secondLevelCacheManager.getCache(name));
+		};
+	}
+
+	private static CacheConfigurationBuilder<Object, Object> region(long maxEntries, long ttlMinutes) {
+		return CacheConfigurationBuilder
+				.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+				.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMinutes(ttlMinutes)));
+	}
+}
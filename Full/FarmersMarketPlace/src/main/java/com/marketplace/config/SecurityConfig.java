@@ -1,36 +1,72 @@
 package com.marketplace.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.marketplace.security.JwtAuthenticationFilter;
+import com.marketplace.security.JwtUtils;
+import com.marketplace.security.SellerAccess;
+
 import java.util.Arrays;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private SellerAccess sellers;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/user/register", "/user/login").permitAll()
+                .requestMatchers("/user/register", "/user/login", "/user/refresh").permitAll()
                 .requestMatchers("/farmer/**").permitAll()
-                .requestMatchers("/seller/**").permitAll()
-                .requestMatchers("/admin/**").permitAll()
+                // sellers only reach their own farmer's data, admins everything
+                .requestMatchers("/seller/categories").hasAnyRole("SELLER", "ADMIN")
+                .requestMatchers(HttpMethod.GET, "/seller/profile/{email}").access(sellers.ownEmail())
+                .requestMatchers(HttpMethod.PUT, "/seller/profile/{farmerId}").access(sellers.ownFarmer())
+                .requestMatchers(HttpMethod.PUT, "/seller/products/{productId}").access(sellers.ownProduct())
+                .requestMatchers(HttpMethod.DELETE, "/seller/products/{productId}").access(sellers.ownProduct())
+                .requestMatchers("/seller/products/{farmerId}", "/seller/products/{farmerId}/**",
+                        "/seller/sales/{farmerId}", "/seller/sales/{farmerId}/**", "/seller/stats/{farmerId}",
+                        "/seller/dashboard/{farmerId}").access(sellers.ownFarmer())
+                .requestMatchers("/seller/**").hasRole("ADMIN")
+                // product images are shown to everyone
+                .requestMatchers(HttpMethod.GET, "/admin/image/{productName}", "/admin/{productid:\\d+}").permitAll()
+                .requestMatchers("/admin/**").hasRole("ADMIN")
                 .requestMatchers("/dummy/**").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                // probes and the scraper need no token; slow statements, latencies and caches are for admins
+                .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                // each batched call is authorised on its own with the forwarded credentials
+                .requestMatchers("/batch").permitAll()
+                // error dispatches of failed requests, otherwise every 500 is reported as 401
+                .requestMatchers("/error").permitAll()
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form.disable())
-            .httpBasic(basic -> basic.disable());
+            .httpBasic(basic -> basic.disable())
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterBefore(new JwtAuthenticationFilter(jwtUtils), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -39,8 +75,9 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList("http://localhost:3000", "http://localhost:5173"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Refresh-Token", "X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
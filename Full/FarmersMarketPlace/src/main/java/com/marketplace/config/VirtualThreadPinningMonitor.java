@@ -0,0 +1,68 @@
+package com.marketplace.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Active only in virtual-thread mode. Streams the JFR jdk.VirtualThreadPinned
+ * event so blocking inside synchronized code (Hibernate, MySQL driver, iText)
+ * that pins a carrier thread shows up in the log and as the
+ * virtual.threads.pinned metric, tagged with the frame that held the monitor.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+	@Value("${virtual-threads.pinning.threshold-ms:20}")
+	private long thresholdMs;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private RecordingStream stream;
+
+	@PostConstruct
+	public void start() {
+		stream = new RecordingStream();
+		stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+		stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+		stream.startAsync();
+		System.out.println("Virtual thread pinning monitor started, threshold " + thresholdMs + " ms");
+	}
+
+	@PreDestroy
+	public void stop() {
+		stream.close();
+	}
+
+	private void onPinned(RecordedEvent event) {
+		String site = pinningSite(event);
+		Counter.builder("virtual.threads.pinned").tag("site", site).register(registry).increment();
+		System.out.println("Virtual thread pinned for " + event.getDuration().toMillis() + " ms at " + site);
+	}
+
+	// First application or library frame below the JDK internals
+	private String pinningSite(RecordedEvent event) {
+		if (event.getStackTrace() == null)
+			return "unknown";
+		for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+			String type = frame.getMethod().getType().getName();
+			if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun."))
+				return type + "." + frame.getMethod().getName();
+		}
+		return "jdk";
+	}
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,16 +17,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.marketplace.dto.FarmerView;
+import com.marketplace.dto.ProductView;
+import com.marketplace.dto.SparseFields;
+import com.marketplace.dto.UserView;
 import com.marketplace.pojos.Category;
 import com.marketplace.pojos.Farmer;
 import com.marketplace.pojos.OrderDetails;
 import com.marketplace.pojos.StockDetails;
 import com.marketplace.pojos.User;
+import com.marketplace.service.ArchiveService;
+import com.marketplace.service.DataVersions;
 import com.marketplace.service.IAdminService;
 import com.marketplace.service.IFarmersService;
 import com.marketplace.service.IUserService;
+import com.marketplace.service.PurgeService;
 
 
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
@@ -42,6 +51,15 @@ public class AdminController {
 	@Autowired
 	private IUserService u_service;
 
+	@Autowired
+	private DataVersions versions;
+
+	@Autowired
+	private PurgeService purge;
+
+	@Autowired
+	private ArchiveService archive;
+
 	@PostMapping("/newfarmer")
 	public ResponseEntity<?> AddNewFarmer(@RequestBody Farmer farmer) {
 		System.out.println(farmer.getStock());
@@ -78,6 +96,30 @@ public class AdminController {
 		return new ResponseEntity<String>("Farmer Removed Successfully", HttpStatus.OK);
 	}
 	
+	// background removal of soft-deleted farmers and categories: progress, or start a run now
+	@GetMapping("/purge")
+	public ResponseEntity<?> purgeStatus() {
+		return new ResponseEntity<List<PurgeService.Progress>>(purge.status(), HttpStatus.OK);
+	}
+
+	@PostMapping("/purge")
+	public ResponseEntity<?> startPurge() {
+		purge.trigger();
+		return new ResponseEntity<String>("Purge started", HttpStatus.ACCEPTED);
+	}
+
+	// moving old delivered orders to the archive tables: current or last run, or start a run now
+	@GetMapping("/archive")
+	public ResponseEntity<?> archiveStatus() {
+		return new ResponseEntity<ArchiveService.Status>(archive.status(), HttpStatus.OK);
+	}
+
+	@PostMapping("/archive")
+	public ResponseEntity<?> startArchive() {
+		archive.trigger();
+		return new ResponseEntity<String>("Archiving started", HttpStatus.ACCEPTED);
+	}
+
 	@GetMapping("removeproduct/{productid}")
 	public ResponseEntity<?> DeleteProduct(@PathVariable int productid) {
 		service.RemoveProduct(productid);
@@ -131,10 +173,14 @@ public class AdminController {
 	}
 	
 	@GetMapping("/categorylist")
-	public ResponseEntity<?> categorylist() {
+	public ResponseEntity<?> categorylist(WebRequest request) {
 		System.out.println("in categorylist");
+		String etag = versions.etag(Category.class);
+		CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+		if (request.checkNotModified(etag))
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).varyBy("Accept").build();
 		List<Category> list = service.getAllCategory();
-		return new ResponseEntity<List<Category>>(list, HttpStatus.OK);
+		return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).varyBy("Accept").body(list);
 	}
 	
 	@GetMapping("/allorders")
@@ -145,10 +191,10 @@ public class AdminController {
 	}
 	
 	@GetMapping("/allusers")
-	public ResponseEntity<?> getAllUsers(){
+	public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String fields){
 		System.out.println("in getAllUsers");
-		List<User> list = service.getAllUser();
-		return new ResponseEntity<List<User>>(list, HttpStatus.OK);
+		List<UserView> list = service.getAllUser();
+		return new ResponseEntity<Object>(SparseFields.select(list, fields), HttpStatus.OK);
 	}
 	
 	@PostMapping("/updateuser/{userId}")
@@ -182,17 +228,17 @@ public class AdminController {
 	}
 	
 	@GetMapping("/allfarmers")
-	public ResponseEntity<?> getAllFarmers() {
+	public ResponseEntity<?> getAllFarmers(@RequestParam(required = false) String fields) {
 		System.out.println("in getAllFarmers");
-		List<Farmer> list = f_service.getFarmersList();
-		return new ResponseEntity<List<Farmer>>(list, HttpStatus.OK);
+		List<FarmerView> list = f_service.getFarmersList();
+		return new ResponseEntity<Object>(SparseFields.select(list, fields), HttpStatus.OK);
 	}
 	
 	@GetMapping("/allproducts")
-	public ResponseEntity<?> getAllProducts() {
+	public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String fields) {
 		System.out.println("in getAllProducts");
-		List<StockDetails> list = f_service.getAllProduct();
-		return new ResponseEntity<List<StockDetails>>(list, HttpStatus.OK);
+		List<ProductView> list = f_service.getAllProduct();
+		return new ResponseEntity<Object>(SparseFields.select(list, fields), HttpStatus.OK);
 	}
 	
 	@GetMapping("/allcategories")
@@ -0,0 +1,98 @@
+package com.marketplace.controller;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.marketplace.service.BatchExecutor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Several GET calls in one round trip, e.g. everything a dashboard loads on
+ * start:
+ *
+ * <pre>
+ * POST /batch {"requests":[{"id":"profile","method":"GET","path":"/seller/profile/3"}, ...]}
+ * </pre>
+ *
+ * answers 200 with {"responses":[{"id":"profile","status":200,"body":{...}}, ...]}
+ * in request order. Every sub-request is dispatched in-process with the
+ * caller's Authorization and Cookie headers and is authorised on its own, so a
+ * failing one only shows up in its own status.
+ */
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+@RestController
+@RequestMapping("/batch")
+public class BatchController {
+
+	public record BatchRequest(List<SubRequest> requests) {
+	}
+
+	public record SubRequest(String id, String method, String path) {
+	}
+
+	public record BatchResponse(List<BatchExecutor.Result> responses) {
+	}
+
+	@Value("${batch.max-requests:10}")
+	private int maxRequests;
+
+	@Autowired
+	private BatchExecutor executor;
+
+	@PostMapping
+	public ResponseEntity<?> batch(@RequestBody BatchRequest batch, HttpServletRequest request,
+			HttpServletResponse response) {
+		if (batch == null || batch.requests() == null || batch.requests().isEmpty())
+			return new ResponseEntity<String>("No requests in batch", HttpStatus.BAD_REQUEST);
+		if (batch.requests().size() > maxRequests)
+			return new ResponseEntity<String>("At most " + maxRequests + " requests per batch",
+					HttpStatus.BAD_REQUEST);
+
+		List<BatchExecutor.Item> items = new ArrayList<>(batch.requests().size());
+		Set<String> ids = new HashSet<>();
+		for (int i = 0; i < batch.requests().size(); i++) {
+			SubRequest sub = batch.requests().get(i);
+			String id = sub.id() == null ? String.valueOf(i) : sub.id();
+			if (!ids.add(id))
+				return new ResponseEntity<String>("Duplicate request id " + id, HttpStatus.BAD_REQUEST);
+			if (sub.method() != null && !"GET".equalsIgnoreCase(sub.method()))
+				return new ResponseEntity<String>("Only GET requests can be batched: " + id,
+						HttpStatus.BAD_REQUEST);
+			String path = sub.path();
+			if (!validPath(path))
+				return new ResponseEntity<String>("Invalid path for " + id, HttpStatus.BAD_REQUEST);
+			items.add(new BatchExecutor.Item(id, path));
+		}
+
+		return new ResponseEntity<BatchResponse>(new BatchResponse(executor.execute(request, response, items)),
+				HttpStatus.OK);
+	}
+
+	/** An absolute path with an optional query, not /batch itself; spaces, '|' or a stray '%' are not. */
+	private static boolean validPath(String path) {
+		if (path == null || !path.startsWith("/") || path.startsWith("//") || path.startsWith("/batch"))
+			return false;
+		try {
+			URI uri = new URI(path);
+			return uri.getScheme() == null && uri.getRawAuthority() == null && uri.getRawFragment() == null;
+		} catch (URISyntaxException e) {
+			return false;
+		}
+	}
+}
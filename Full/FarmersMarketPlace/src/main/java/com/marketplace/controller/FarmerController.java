@@ -3,16 +3,30 @@ package com.marketplace.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.marketplace.dto.FarmerView;
+import com.marketplace.dto.ProductView;
+import com.marketplace.dto.SparseFields;
+import com.marketplace.pojos.Category;
 import com.marketplace.pojos.Farmer;
 import com.marketplace.pojos.StockDetails;
+import com.marketplace.service.CatalogFallback;
+import com.marketplace.service.CatalogFallback.Served;
+import com.marketplace.service.DataVersions;
+import com.marketplace.service.FarmerPageCache;
 import com.marketplace.service.IFarmersService;
 
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
@@ -23,35 +37,104 @@ public class FarmerController {
 	@Autowired
 	private IFarmersService f_service;
 
+	// serves the last good response while the database is slow or down
+	@Autowired
+	private CatalogFallback fallback;
+
+	@Autowired
+	private DataVersions versions;
+
+	@Autowired
+	private FarmerPageCache pageCache;
+
 	@GetMapping("/list")
-	public ResponseEntity<?> farmersList() {
+	public ResponseEntity<?> farmersList(@RequestParam(required = false) String fields, WebRequest request) {
 		System.out.println("in getFarmersList");
-		List<Farmer> list = f_service.getFarmersList();
-		return new ResponseEntity<List<Farmer>>(list, HttpStatus.OK);
+		String etag = versions.etag(Farmer.class);
+		if (request.checkNotModified(etag))
+			return notModified(etag);
+		return respond(fallback.read("farmers", "farmers", () -> f_service.getFarmersList()), etag, fields);
 	}
 
 	@GetMapping("/farmerdetails/{farmerid}")
-	public ResponseEntity<?> getFarmerDetails(@PathVariable int farmerid) {
-		return new ResponseEntity<Farmer>(f_service.getFarmerDetails(farmerid), HttpStatus.OK);
+	public ResponseEntity<?> getFarmerDetails(@PathVariable int farmerid, @RequestParam(required = false) String fields) {
+		Served<FarmerView> farmer = fallback.read("farmer", "farmer:" + farmerid,
+				() -> FarmerView.of(f_service.getFarmerDetails(farmerid)));
+		return respond(farmer, fields);
 	}
 
 	@GetMapping("/products/{farmerid}")
-	public ResponseEntity<?> stockDetails(@PathVariable int farmerid) {
-		List<StockDetails> products = f_service.getFarmerStock(farmerid);
-		return new ResponseEntity<List<StockDetails>>(products, HttpStatus.OK);
+	public ResponseEntity<?> stockDetails(@PathVariable int farmerid, @RequestParam(required = false) String fields,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		// the whole listing as JSON is sent from the pre-gzipped page cache
+		if (fields == null && wantsJson(accept)) {
+			byte[] page = pageCache.get(farmerid);
+			if (page == null) {
+				long generation = pageCache.generation(farmerid);
+				Served<List<ProductView>> products = fallback.read("farmerStock", "farmerStock:" + farmerid,
+						() -> f_service.getFarmerStock(farmerid));
+				if (products.stale())
+					return respond(products, null);
+				page = pageCache.put(farmerid, generation, products.body());
+			}
+			ResponseEntity.BodyBuilder ok = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+					.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+			if (acceptEncoding != null && acceptEncoding.contains("gzip"))
+				return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page);
+			return ok.body(FarmerPageCache.gunzip(page));
+		}
+		Served<List<ProductView>> products = fallback.read("farmerStock", "farmerStock:" + farmerid,
+				() -> f_service.getFarmerStock(farmerid));
+		return respond(products, fields);
 	}
 
 	@GetMapping("/products/{farmerid}/{productid}")
-	public ResponseEntity<?> productDetails(@PathVariable int farmerid, @PathVariable int productid) {
-		StockDetails product = f_service.getProductDetails(farmerid, productid);
-		return new ResponseEntity<StockDetails>(product, HttpStatus.OK);
+	public ResponseEntity<?> productDetails(@PathVariable int farmerid, @PathVariable int productid,
+			@RequestParam(required = false) String fields) {
+		Served<ProductView> product = fallback.read("product", "product:" + farmerid + "/" + productid,
+				() -> f_service.getProductDetails(farmerid, productid));
+		return respond(product, fields);
 	}
 	
 	@GetMapping("/allproducts")
-	public ResponseEntity<?> productlist() {
+	public ResponseEntity<?> productlist(@RequestParam(required = false) String fields, WebRequest request) {
 		System.out.println("in productlist");
-		List<StockDetails> list = f_service.getAllProduct();
-		return new ResponseEntity<List<StockDetails>>(list, HttpStatus.OK);
+		// removing a farmer hides its products
+		String etag = versions.etag(StockDetails.class, Category.class, Farmer.class);
+		if (request.checkNotModified(etag))
+			return notModified(etag);
+		return respond(fallback.read("allProducts", "allProducts", () -> f_service.getAllProduct()), etag, fields);
+	}
+
+	// CBOR and Smile clients name their format; anything else gets JSON
+	private static boolean wantsJson(String accept) {
+		return accept == null || !(accept.contains("cbor") || accept.contains("smile"));
+	}
+
+	// clients may keep listings but must revalidate them; the ETag makes that a 304.
+	// The tag is per version, not per encoding, so caches must also key on Accept
+	private static ResponseEntity<?> notModified(String etag) {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache())
+				.varyBy(HttpHeaders.ACCEPT).build();
+	}
+
+	// a stale body carries no ETag: it may be older than the current version
+	private static ResponseEntity<?> respond(Served<?> served, String etag, String fields) {
+		if (served.stale())
+			return respond(served, fields);
+		return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT)
+				.body(SparseFields.select(served.body(), fields));
+	}
+
+	private static ResponseEntity<?> respond(Served<?> served, String fields) {
+		Object body = SparseFields.select(served.body(), fields);
+		if (!served.stale())
+			return new ResponseEntity<Object>(body, HttpStatus.OK);
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.AGE, String.valueOf(served.ageSeconds()));
+		headers.set("Warning", "110 - \"Response is Stale\"");
+		return new ResponseEntity<Object>(body, headers, HttpStatus.OK);
 	}
 
 }
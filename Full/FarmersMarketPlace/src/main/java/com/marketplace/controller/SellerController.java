@@ -1,25 +1,52 @@
 package com.marketplace.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.marketplace.dto.ImportReport;
+import com.marketplace.dto.OrderFilter;
+import com.marketplace.dto.ProductUpdate;
+import com.marketplace.dto.ProductUpdateResult;
+import com.marketplace.dto.ProductView;
+import com.marketplace.dto.SellerDashboard;
+import com.marketplace.dto.SparseFields;
 import com.marketplace.pojos.Category;
 import com.marketplace.pojos.Farmer;
+import com.marketplace.pojos.OrderDetails;
 import com.marketplace.pojos.StockDetails;
+import com.marketplace.service.DataVersions;
 import com.marketplace.service.IAdminService;
 import com.marketplace.service.IFarmersService;
+import com.marketplace.service.OrderHistoryService;
+import com.marketplace.service.ProductImportService;
+import com.marketplace.service.SellerDashboardService;
+
+import jakarta.persistence.NoResultException;
 
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
 @RestController
@@ -32,6 +59,21 @@ public class SellerController {
 	@Autowired
 	private IAdminService a_service;
 
+	@Autowired
+	private DataVersions versions;
+
+	@Autowired
+	private SellerDashboardService dashboard;
+
+	@Autowired
+	private ProductImportService importer;
+
+	@Autowired
+	private OrderHistoryService history;
+
+	@Value("${seller.bulk-update.max-rows:10000}")
+	private int maxBulkUpdates;
+
 	// Get seller's profile by email
 	@GetMapping("/profile/{email}")
 	public ResponseEntity<?> getSellerProfile(@PathVariable String email) {
@@ -49,10 +91,14 @@ public class SellerController {
 
 	// Get all categories for dropdown
 	@GetMapping("/categories")
-	public ResponseEntity<?> getAllCategories() {
+	public ResponseEntity<?> getAllCategories(WebRequest request) {
 		try {
+			String etag = versions.etag(Category.class);
+			CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+			if (request.checkNotModified(etag))
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).varyBy("Accept").build();
 			List<Category> categories = a_service.getAllCategory();
-			return new ResponseEntity<List<Category>>(categories, HttpStatus.OK);
+			return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).varyBy("Accept").body(categories);
 		} catch (Exception e) {
 			return new ResponseEntity<String>("Error fetching categories", HttpStatus.INTERNAL_SERVER_ERROR);
 		}
@@ -60,10 +106,10 @@ public class SellerController {
 
 	// Get seller's products by farmer ID
 	@GetMapping("/products/{farmerId}")
-	public ResponseEntity<?> getSellerProducts(@PathVariable int farmerId) {
+	public ResponseEntity<?> getSellerProducts(@PathVariable int farmerId, @RequestParam(required = false) String fields) {
 		try {
-			List<StockDetails> products = f_service.getFarmerStock(farmerId);
-			return new ResponseEntity<List<StockDetails>>(products, HttpStatus.OK);
+			List<ProductView> products = f_service.getFarmerStock(farmerId);
+			return new ResponseEntity<Object>(SparseFields.select(products, fields), HttpStatus.OK);
 		} catch (Exception e) {
 			return new ResponseEntity<String>("Error fetching products", HttpStatus.INTERNAL_SERVER_ERROR);
 		}
@@ -108,6 +154,30 @@ public class SellerController {
 		}
 	}
 
+	// Bulk import: CSV with a header line, or NDJSON, streamed from the request body
+	@PostMapping(value = "/products/{farmerId}/import", consumes = { "text/csv", "application/x-ndjson" })
+	public ResponseEntity<?> importProducts(@PathVariable int farmerId,
+			@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+		try {
+			boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf("text/csv"));
+			ImportReport report = importer.importProducts(farmerId, body, csv);
+			return new ResponseEntity<ImportReport>(report, HttpStatus.OK);
+		} catch (NoResultException | EmptyResultDataAccessException e) {
+			return new ResponseEntity<String>("Seller not found", HttpStatus.NOT_FOUND);
+		} catch (IOException e) {
+			return new ResponseEntity<String>("Error reading import: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+
+	// Bulk price/stock update: [{"productId", "pricePerUnit"?, "quantity"?, "version"?}, ...]
+	@PatchMapping("/products/{farmerId}")
+	public ResponseEntity<?> updateProducts(@PathVariable int farmerId, @RequestBody List<ProductUpdate> updates) {
+		if (updates.size() > maxBulkUpdates)
+			return new ResponseEntity<String>("At most " + maxBulkUpdates + " updates per request", HttpStatus.BAD_REQUEST);
+		List<ProductUpdateResult> results = f_service.updateProducts(farmerId, updates);
+		return new ResponseEntity<List<ProductUpdateResult>>(results, HttpStatus.OK);
+	}
+
 	// Update product
 	@PutMapping("/products/{productId}")
 	public ResponseEntity<?> updateProduct(@PathVariable int productId, @RequestBody StockDetails updatedProduct) {
@@ -142,9 +212,9 @@ public class SellerController {
 	@GetMapping("/products/{farmerId}/{productId}")
 	public ResponseEntity<?> getProductDetails(@PathVariable int farmerId, @PathVariable int productId) {
 		try {
-			StockDetails product = f_service.getProductDetails(farmerId, productId);
+			ProductView product = f_service.getProductDetails(farmerId, productId);
 			if (product != null) {
-				return new ResponseEntity<StockDetails>(product, HttpStatus.OK);
+				return new ResponseEntity<ProductView>(product, HttpStatus.OK);
 			} else {
 				return new ResponseEntity<String>("Product not found", HttpStatus.NOT_FOUND);
 			}
@@ -153,17 +223,40 @@ public class SellerController {
 		}
 	}
 
-	// Get seller's sales/orders
+	// Get seller's sales/orders, newest first; optional from/to (yyyy-MM-dd) limit them to orders placed in that range
 	@GetMapping("/sales/{farmerId}")
-	public ResponseEntity<?> getSellerSales(@PathVariable int farmerId) {
+	public ResponseEntity<?> getSellerSales(@PathVariable int farmerId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
 		try {
-			List<?> sales = f_service.getSellerSales(farmerId);
-			return new ResponseEntity<List<?>>(sales, HttpStatus.OK);
+			List<OrderDetails> sales = f_service.getSellerSales(farmerId, from, to);
+			return new ResponseEntity<List<OrderDetails>>(sales, HttpStatus.OK);
 		} catch (Exception e) {
 			return new ResponseEntity<String>("Error fetching sales data", HttpStatus.INTERNAL_SERVER_ERROR);
 		}
 	}
 
+	// Seller's sales one page of limit lines at a time, newest first; the X-Next-Cursor header of a page is the
+	// cursor of the next one (absent on the last). Optional from/to (yyyy-MM-dd), status (delivered or pending)
+	// and paid filter them
+	@GetMapping("/sales/{farmerId}/history")
+	public ResponseEntity<?> getSalesHistory(@PathVariable int farmerId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) String status, @RequestParam(required = false) Boolean paid,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+		OrderHistoryService.Page page;
+		try {
+			page = history.sellerPage(farmerId, OrderFilter.of(from, to, status, paid), cursor, limit);
+		} catch (IllegalArgumentException e) {
+			return new ResponseEntity<String>(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+		ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+		if (page.next() != null)
+			ok.header("X-Next-Cursor", page.next());
+		return ok.body(page.lines());
+	}
+
 	// Get sales statistics
 	@GetMapping("/stats/{farmerId}")
 	public ResponseEntity<?> getSellerStats(@PathVariable int farmerId) {
@@ -175,6 +268,16 @@ public class SellerController {
 		}
 	}
 
+	// Profile, products, sales and stats in one call, loaded in parallel
+	@GetMapping("/dashboard/{farmerId}")
+	public ResponseEntity<?> getSellerDashboard(@PathVariable int farmerId) {
+		try {
+			return new ResponseEntity<SellerDashboard>(dashboard.load(farmerId), HttpStatus.OK);
+		} catch (NoResultException | EmptyResultDataAccessException e) {
+			return new ResponseEntity<String>("Seller profile not found", HttpStatus.NOT_FOUND);
+		}
+	}
+
 	// Update seller profile
 	@PutMapping("/profile/{farmerId}")
 	public ResponseEntity<?> updateSellerProfile(@PathVariable int farmerId, @RequestBody Farmer updatedProfile) {
@@ -3,28 +3,43 @@ package com.marketplace.controller;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.itextpdf.text.DocumentException;
+import com.marketplace.custom_exceptions.HashingUnavailableException;
+import com.marketplace.dto.OrderFilter;
+import com.marketplace.pojos.ApiResponse;
 import com.marketplace.pojos.Authentication;
 import com.marketplace.pojos.Cart;
 import com.marketplace.pojos.CartItem;
 import com.marketplace.pojos.OrderDetails;
 import com.marketplace.pojos.User;
+import com.marketplace.security.JwtPrincipal;
+import com.marketplace.security.JwtUtils;
+import com.marketplace.security.RateLimiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import com.marketplace.service.CartStore;
 import com.marketplace.service.IUserService;
+import com.marketplace.service.OrderHistoryService;
 import com.marketplace.service.PdfExportService;
 
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
@@ -38,12 +53,23 @@ public class UserController {
 	@Autowired
 	private PdfExportService pdfService;
 
-	List<CartItem> items = null;
-	Cart mycart = new Cart();
-	User user = new User();
+	@Autowired
+	private OrderHistoryService history;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	@Autowired
+	private RateLimiter rateLimiter;
+
+	@Autowired
+	private CartStore carts;
 
 	@PostMapping("/register")
-	public ResponseEntity<?> RegisterNewUser(@RequestBody User user) {
+	public ResponseEntity<?> RegisterNewUser(@RequestBody User user, HttpServletRequest request) {
+		long retryAfter = rateLimiter.acquireRegister(request.getRemoteAddr(), user.getEmail());
+		if (retryAfter > 0)
+			return tooManyRequests(retryAfter);
 		try {
 			boolean success = u_service.Register(user);
 			if (success) {
@@ -51,6 +77,10 @@ public class UserController {
 			} else {
 				return new ResponseEntity<String>("Registration failed. Please try again.", HttpStatus.BAD_REQUEST);
 			}
+		} catch (HashingUnavailableException e) {
+			return busy();
+		} catch (DataIntegrityViolationException e) {
+			return new ResponseEntity<String>("Email already exists. Please use a different email.", HttpStatus.CONFLICT);
 		} catch (Exception e) {
 			System.err.println("Registration error: " + e.getMessage());
 			e.printStackTrace();
@@ -62,81 +92,133 @@ public class UserController {
 	}
 
 	@PostMapping("/login")
-	public ResponseEntity<?> LoginUser(@RequestBody Authentication userID) {
+	public ResponseEntity<?> LoginUser(@RequestBody Authentication userID, HttpServletRequest request) {
 		String email = userID.getEmail();
 		String password = userID.getPassword();
-		System.out.println(email + "   " + password);
+		long retryAfter = rateLimiter.acquireLogin(request.getRemoteAddr(), email);
+		if (retryAfter > 0)
+			return tooManyRequests(retryAfter);
+		System.out.println("login attempt for " + email);
 		User u = null;
 		try {
 			u = u_service.Authenticate(email, password);
+		} catch (HashingUnavailableException e) {
+			return busy();
 		} catch (Exception e) {
 			return new ResponseEntity<Void>(HttpStatus.OK);
 		}
 
-		user = u;
+		JwtPrincipal principal = JwtPrincipal.of(u, u_service.getFarmerId(u));
+		return ResponseEntity.ok()
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateAccessToken(principal))
+				.header("X-Refresh-Token", jwtUtils.generateRefreshToken(principal))
+				.body(u);
+
+	}
+
+	private ResponseEntity<?> busy() {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+				.body("Server is busy. Please try again.");
+	}
 
-		items = new ArrayList<CartItem>();
-		return new ResponseEntity<User>(u, HttpStatus.OK);
+	private ResponseEntity<?> tooManyRequests(long retryAfterSeconds) {
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+				.body("Too many attempts. Please try again later.");
+	}
 
+	@PostMapping("/refresh")
+	public ResponseEntity<?> RefreshToken(@RequestHeader("X-Refresh-Token") String refreshToken) {
+		JwtPrincipal principal = jwtUtils.parseRefreshToken(refreshToken);
+		if (principal == null) {
+			return new ResponseEntity<ApiResponse>(new ApiResponse("Invalid or expired refresh token"),
+					HttpStatus.UNAUTHORIZED);
+		}
+		return ResponseEntity.ok()
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateAccessToken(principal))
+				.body(new ApiResponse("Token refreshed"));
 	}
 
+	// the cart belongs to the caller of the token, see CartStore
 	@PostMapping("/addtocart/{productid}")
-	public ResponseEntity<?> AddToCart(@PathVariable int productid, @RequestParam int qty) {
+	public ResponseEntity<?> AddToCart(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable int productid,
+			@RequestParam int qty) {
 		System.out.println("in AddToCart");
 		CartItem product = u_service.AddToCart(productid, qty);
-		items.add(product);
+		List<CartItem> items = carts.add(principal.userId(), product);
 		System.out.println("item added to cart");
-		System.out.println(items);
 		return new ResponseEntity<List<CartItem>>(items, HttpStatus.OK);
 	}
 
 	@GetMapping("/checkout")
-	public ResponseEntity<?> CheckOut() {
+	public ResponseEntity<?> CheckOut(@AuthenticationPrincipal JwtPrincipal principal) {
 		System.out.println("checkout");
-		double grandtotal = 0.0;
-
-		for (CartItem item : items) {
-			grandtotal += item.getAmount();
-		}
-		mycart.setItems(items);
-		mycart.setGrandTotal(grandtotal);
-		return new ResponseEntity<List<CartItem>>(items, HttpStatus.OK);
+		return new ResponseEntity<List<CartItem>>(carts.items(principal.userId()), HttpStatus.OK);
 	}
 
 	@PostMapping("/removefromcart/{productid}") // "productid" here is index of list
-	public ResponseEntity<?> removeItem(@PathVariable int productid) {
+	public ResponseEntity<?> removeItem(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable int productid) {
 		System.out.println("Removing item");
-		items.remove(productid);
-		return new ResponseEntity<List<CartItem>>(items, HttpStatus.OK);
+		try {
+			return new ResponseEntity<List<CartItem>>(carts.remove(principal.userId(), productid), HttpStatus.OK);
+		} catch (IllegalArgumentException e) {
+			return new ResponseEntity<String>(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
 	}
 
 	@PostMapping("/placeorder")
-	public ResponseEntity<?> PlaceOrder()
+	public ResponseEntity<?> PlaceOrder(@AuthenticationPrincipal JwtPrincipal principal)
 			throws DocumentException, MalformedURLException, URISyntaxException, IOException {
 
-		u_service.PlaceOrder(mycart, user);
+		User user = new User();
+		user.setUserId(principal.userId());
+		user.setEmail(principal.email());
+		Cart cart = carts.placeOrder(principal.userId(), placed -> u_service.PlaceOrder(placed, user));
+		if (cart.getItems().isEmpty())
+			return new ResponseEntity<String>("Cart is empty", HttpStatus.BAD_REQUEST);
 
-		pdfService.export(items);
+		pdfService.export(cart.getItems());
 
 		// Email verification removed - order placed successfully
 		System.out.println("Order placed successfully for user: " + user.getEmail());
 
-		items.clear();
-		return new ResponseEntity<List<CartItem>>(items, HttpStatus.OK);
+		return new ResponseEntity<List<CartItem>>(carts.items(principal.userId()), HttpStatus.OK);
 	}
 
-	@PostMapping("/orders") // "productid" here is index of list
-	public ResponseEntity<?> Orders(@RequestParam int userId) {
+	// the caller's orders; userId may be left out, an admin may pass anyone's. Optional from/to (yyyy-MM-dd)
+	// limit the history to orders placed in that range
+	@PostMapping("/orders")
+	public ResponseEntity<?> Orders(@AuthenticationPrincipal JwtPrincipal principal,
+			@RequestParam(required = false) Integer userId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		if (userId == null)
+			userId = principal.userId();
+		else if (!userId.equals(principal.userId()) && !principal.admin())
+			return new ResponseEntity<String>("Not your orders", HttpStatus.FORBIDDEN);
 		System.out.println("inside orders" + userId);
-		List<OrderDetails> orders = u_service.getOrder(userId);
+		List<OrderDetails> orders = u_service.getOrder(userId, from, to);
 		return new ResponseEntity<List<OrderDetails>>(orders, HttpStatus.OK);
 	}
 	
+	// the caller's order history, newest first, limit orders per page with all their lines; the X-Next-Cursor
+	// header of a page is the cursor of the next one (absent on the last). Optional from/to (yyyy-MM-dd),
+	// status (delivered or pending) and paid filter it
 	@GetMapping("/getorders")
-	public ResponseEntity<?> getOrders() {
-		System.out.println("in getOrders");
-		// For now, return empty list. In a real app, you'd get orders for current user
-		List<OrderDetails> orders = new ArrayList<>();
-		return new ResponseEntity<List<OrderDetails>>(orders, HttpStatus.OK);
+	public ResponseEntity<?> getOrders(@AuthenticationPrincipal JwtPrincipal principal,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) String status, @RequestParam(required = false) Boolean paid,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+		OrderHistoryService.Page page;
+		try {
+			page = history.buyerPage(principal.userId(), OrderFilter.of(from, to, status, paid), cursor, limit);
+		} catch (IllegalArgumentException e) {
+			return new ResponseEntity<String>(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+		ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+		if (page.next() != null)
+			ok.header("X-Next-Cursor", page.next());
+		return ok.body(page.lines());
 	}
 }
@@ -0,0 +1,8 @@
+package com.marketplace.custom_exceptions;
+
+@SuppressWarnings("serial")
+public class CatalogUnavailableException extends RuntimeException {
+	public CatalogUnavailableException(String mesg) {
+		super(mesg);
+	}
+}
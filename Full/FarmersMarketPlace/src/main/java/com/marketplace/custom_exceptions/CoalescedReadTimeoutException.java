@@ -0,0 +1,8 @@
+package com.marketplace.custom_exceptions;
+
+@SuppressWarnings("serial")
+public class CoalescedReadTimeoutException extends RuntimeException {
+	public CoalescedReadTimeoutException(String mesg) {
+		super(mesg);
+	}
+}
@@ -0,0 +1,8 @@
+package com.marketplace.custom_exceptions;
+
+@SuppressWarnings("serial")
+public class HashingUnavailableException extends RuntimeException {
+	public HashingUnavailableException(String mesg) {
+		super(mesg);
+	}
+}
@@ -7,11 +7,13 @@ import java.nio.file.StandardCopyOption;
 import java.util.List;
 
 import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.marketplace.custom_exceptions.ResourceNotFoundException;
+import com.marketplace.dto.UserView;
 import com.marketplace.pojos.Category;
 import com.marketplace.pojos.Farmer;
 import com.marketplace.pojos.OrderDetails;
@@ -51,16 +53,12 @@ public class AdminDaoImpl implements IAdminDao {
 	
 	@Override
 	public boolean RemoveFarmer(int farmerId) {
-		boolean success = false;
+		// soft delete: hidden at once, its stock and order lines are purged in the background
 		Farmer f = mgr.find(Farmer.class, farmerId);
-		List<StockDetails> s = f.getStock();
-		for(StockDetails sd : s) {
-			mgr.remove(sd);
-		}
-		
+		if (f == null)
+			return false;
 		mgr.remove(f);
-		success = true;
-		return success;
+		return true;
 	}
 
 	@Override
@@ -109,11 +107,12 @@ public class AdminDaoImpl implements IAdminDao {
 	
 	@Override
 	public boolean RemoveCategory(int catid) {
-		boolean success = false;
+		// soft delete: hidden at once, its products are purged in the background
 		Category c = mgr.find(Category.class, catid);
+		if (c == null)
+			return false;
 		mgr.remove(c);
-		success = true;
-		return success;
+		return true;
 	}
 
 	@Override
@@ -140,7 +139,7 @@ public class AdminDaoImpl implements IAdminDao {
 	@Override
 	public List<Category> getAllCategory() {
 		String jpql = "SELECT NEW com.marketplace.pojos.Category(c.categoryId, c.categoryName) FROM Category c";
-		return mgr.createQuery(jpql, Category.class).getResultList();
+		return mgr.createQuery(jpql, Category.class).setHint(HibernateHints.HINT_CACHEABLE, true).getResultList();
 	}
 	
 	@Override
@@ -150,10 +149,10 @@ public class AdminDaoImpl implements IAdminDao {
 	}
 
 	@Override
-	public List<User> getAllUser() {
-		String jpql = "SELECT NEW com.marketplace.pojos.User(u.userId, u.email, u.password, u.phoneNo, u.address,"
-				+ "u.firstname, u.lastname, u.isadmin) FROM User u";
-		return mgr.createQuery(jpql, User.class).getResultList();
+	public List<UserView> getAllUser() {
+		String jpql = "SELECT NEW com.marketplace.dto.UserView(u.userId, u.email, u.phoneNo, u.address,"
+				+ " u.firstname, u.lastname, u.isadmin, u.userType) FROM User u";
+		return mgr.createQuery(jpql, UserView.class).getResultList();
 	}
 	
 	@Override
@@ -165,10 +164,8 @@ public class AdminDaoImpl implements IAdminDao {
 	@Override
 	public Category getCategoryByName(String categoryName) {
 		try {
-			String jpql = "SELECT c FROM Category c WHERE c.categoryName = :categoryName";
-			return mgr.createQuery(jpql, Category.class)
-					.setParameter("categoryName", categoryName)
-					.getSingleResult();
+			// natural-id lookup, answered from the second-level cache once the name has been seen
+			return mgr.unwrap(Session.class).bySimpleNaturalId(Category.class).load(categoryName);
 		} catch (Exception e) {
 			return null; // Category not found
 		}
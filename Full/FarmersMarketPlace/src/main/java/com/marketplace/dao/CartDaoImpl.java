@@ -0,0 +1,70 @@
+package com.marketplace.dao;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.marketplace.pojos.CartItem;
+
+/**
+ * The buyer_carts and buyer_cart_items tables. An item is read back as a
+ * CartItem whose id is the product id, as AddToCart builds it. Times are the
+ * database's, so instances with different clocks agree on idle carts.
+ */
+@Repository
+public class CartDaoImpl implements ICartDao {
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	/** Refreshes last_used and locks the cart row until the transaction ends; 0 if there is no cart. */
+	@Override
+	public int touchCart(int userId) {
+		return jdbc.update("UPDATE buyer_carts SET last_used = CURRENT_TIMESTAMP WHERE user_id = ?", userId);
+	}
+
+	@Override
+	public void insertCart(int userId) {
+		jdbc.update("INSERT INTO buyer_carts (user_id, last_used) VALUES (?, CURRENT_TIMESTAMP)", userId);
+	}
+
+	@Override
+	public int deleteCart(int userId) {
+		return jdbc.update("DELETE FROM buyer_carts WHERE user_id = ?", userId);
+	}
+
+	@Override
+	public List<CartItem> getItems(int userId) {
+		return jdbc.query("SELECT product_id, cart_item, cart_qty, price, amount, farmer_id FROM buyer_cart_items"
+				+ " WHERE user_id = ? ORDER BY id",
+				(rs, n) -> new CartItem(rs.getInt("product_id"), rs.getString("cart_item"), rs.getInt("cart_qty"),
+						rs.getDouble("price"), rs.getDouble("amount"), rs.getInt("farmer_id")),
+				userId);
+	}
+
+	@Override
+	public List<Integer> getItemIds(int userId) {
+		return jdbc.queryForList("SELECT id FROM buyer_cart_items WHERE user_id = ? ORDER BY id", Integer.class, userId);
+	}
+
+	@Override
+	public void insertItem(int userId, CartItem item) {
+		jdbc.update("INSERT INTO buyer_cart_items (user_id, product_id, cart_item, cart_qty, price, amount, farmer_id)"
+				+ " VALUES (?, ?, ?, ?, ?, ?, ?)", userId, item.getId(), item.getItem(), item.getQty(), item.getPrice(),
+				item.getAmount(), item.getFarmer_id());
+	}
+
+	@Override
+	public int deleteItem(int itemId) {
+		return jdbc.update("DELETE FROM buyer_cart_items WHERE id = ?", itemId);
+	}
+
+	/** Deletes the carts unused for idleMinutes; their items go with them (ON DELETE CASCADE). */
+	@Override
+	public int deleteIdleCarts(long idleMinutes) {
+		return jdbc.update("DELETE FROM buyer_carts WHERE last_used < TIMESTAMPADD(MINUTE, ?, CURRENT_TIMESTAMP)",
+				-idleMinutes);
+	}
+}
@@ -1,16 +1,38 @@
 package com.marketplace.dao;
 
+import java.sql.Date;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import com.marketplace.dto.FarmerView;
+import com.marketplace.dto.ImportedProduct;
+import com.marketplace.dto.ProductUpdate;
+import com.marketplace.dto.ProductUpdateResult;
+import com.marketplace.dto.ProductUpdateResult.Status;
+import com.marketplace.dto.ProductView;
+import com.marketplace.pojos.Category;
 import com.marketplace.pojos.Farmer;
+import com.marketplace.pojos.OrderDetails;
 import com.marketplace.pojos.SellerStats;
 import com.marketplace.pojos.StockDetails;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 
 
 @Repository
@@ -18,42 +40,61 @@ public class FarmersDaoImpl implements IFarmersDao {
 
 	@PersistenceContext
 	private EntityManager mgr;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	// Joins to soft-deleted farmers and categories find no row (@SQLRestriction), so an inner join to the farmer
+	// hides its products; a product whose category_id is set but whose category did not join is in a deleted one
+	private static final String LIVE_CATEGORY = " (sd.categoryId IS NULL OR c.categoryId IS NOT NULL)";
 	
 	@Override
-	public List<Farmer> getAllFarmers() {
-		String jpql = "SELECT NEW com.marketplace.pojos.Farmer(f.farmerId, f.firstname, f.lastname, f.email, f.phoneNo, f.address) FROM Farmer f";
-		return mgr.createQuery(jpql, Farmer.class).getResultList();
+	public List<FarmerView> getAllFarmers() {
+		String jpql = "SELECT NEW com.marketplace.dto.FarmerView(f.farmerId, f.firstname, f.lastname, f.email, f.phoneNo, f.address) FROM Farmer f";
+		return mgr.createQuery(jpql, FarmerView.class).getResultList();
 	}
 
 	@Override
-	public List<StockDetails> getFarmerStock(int farmerid) {
-		String jpql = "SELECT sd FROM StockDetails sd JOIN sd.farmer1 f WHERE f.farmerId=:frmr ORDER BY sd.id DESC";
-		return mgr.createQuery(jpql, StockDetails.class).setParameter("frmr", farmerid).getResultList();
+	public List<ProductView> getFarmerStock(int farmerid) {
+		String jpql = "SELECT NEW com.marketplace.dto.ProductView(sd.id, sd.stockItem, sd.quantity, sd.pricePerUnit, c.categoryId, c.categoryName, sd.imagePath, sd.description,"
+				+ " sd.version, f.farmerId, f.firstname, f.lastname, f.email, f.phoneNo, f.address)"
+				+ " FROM StockDetails sd JOIN sd.farmer1 f LEFT JOIN sd.category c WHERE f.farmerId=:frmr AND" + LIVE_CATEGORY
+				+ " ORDER BY sd.id DESC";
+		return mgr.createQuery(jpql, ProductView.class).setParameter("frmr", farmerid).getResultList();
 	}
 
 	@Override
-	public StockDetails getProductDetails(int farmerid, int productid) {
-		String jpql = "SELECT NEW com.marketplace.pojos.StockDetails(sd.id, sd.stockItem, sd.quantity, sd.pricePerUnit, sd.category) FROM StockDetails sd JOIN sd.farmer1 f WHERE f.farmerId=:frmr AND sd.id=:prdct";
-		return mgr.createQuery(jpql, StockDetails.class).setParameter("frmr", farmerid).setParameter("prdct", productid).getSingleResult();
+	public ProductView getProductDetails(int farmerid, int productid) {
+		String jpql = "SELECT NEW com.marketplace.dto.ProductView(sd.id, sd.stockItem, sd.quantity, sd.pricePerUnit, c.categoryId, c.categoryName, sd.imagePath)"
+				+ " FROM StockDetails sd JOIN sd.farmer1 f LEFT JOIN sd.category c WHERE f.farmerId=:frmr AND sd.id=:prdct AND"
+				+ LIVE_CATEGORY;
+		return mgr.createQuery(jpql, ProductView.class).setParameter("frmr", farmerid).setParameter("prdct", productid).getSingleResult();
 	}
 
 	@Override
 	public Farmer getFarmerDetails(int id) {
-		String jpql = "SELECT NEW com.marketplace.pojos.Farmer(f.farmerId, f.firstname, f.lastname, f.email, f.phoneNo, f.address) FROM Farmer f WHERE f.farmerId=:fid";
-		return mgr.createQuery(jpql, Farmer.class).setParameter("fid", id).getSingleResult();
+		// find() is served from the second-level cache; the copy keeps the detached, stock-less view callers had
+		Farmer f = mgr.find(Farmer.class, id);
+		if (f == null)
+			throw new NoResultException("No farmer with id " + id);
+		return new Farmer(f.getFarmerId(), f.getFirstname(), f.getLastname(), f.getEmail(), f.getPhoneNo(), f.getAddress());
 	}
 
 	@Override
-	public List<StockDetails> getAllProduct() {
-		String jpql = "SELECT NEW com.marketplace.pojos.StockDetails(s.id, s.stockItem, s.quantity, s.pricePerUnit, s.category, s.imagePath) FROM StockDetails s";
-		return mgr.createQuery(jpql, StockDetails.class).getResultList();
+	public List<ProductView> getAllProduct() {
+		String jpql = "SELECT NEW com.marketplace.dto.ProductView(sd.id, sd.stockItem, sd.quantity, sd.pricePerUnit, c.categoryId, c.categoryName, sd.imagePath)"
+				+ " FROM StockDetails sd JOIN sd.farmer1 f LEFT JOIN sd.category c WHERE" + LIVE_CATEGORY;
+		return mgr.createQuery(jpql, ProductView.class).getResultList();
 	}
 
 	@Override
 	public Farmer getFarmerByEmail(String email) {
 		try {
 			String jpql = "SELECT f FROM Farmer f WHERE f.email=:email";
-			return mgr.createQuery(jpql, Farmer.class).setParameter("email", email).getSingleResult();
+			return mgr.createQuery(jpql, Farmer.class).setParameter("email", email)
+					.setHint(HibernateHints.HINT_CACHEABLE, true)
+					.setHint(HibernateHints.HINT_CACHE_REGION, "farmer-by-email")
+					.getSingleResult();
 		} catch (Exception e) {
 			return null;
 		}
@@ -111,11 +152,19 @@ public class FarmersDaoImpl implements IFarmersDao {
 	}
 
 	@Override
-	public List<?> getSellerSales(int farmerId) {
+	public List<OrderDetails> getSellerSales(int farmerId, LocalDate from, LocalDate to) {
 		try {
 			String jpql = "SELECT NEW com.marketplace.pojos.OrderDetails(od.id, od.orderItem, od.quantity, od.amount, od.orders) " +
-						 "FROM OrderDetails od WHERE od.farmer.farmerId = :farmerId ORDER BY od.orders.placeOrderDate DESC";
-			return mgr.createQuery(jpql).setParameter("farmerId", farmerId).getResultList();
+						 "FROM OrderDetails od WHERE od.farmer.farmerId = :farmerId" +
+						 (from != null ? " AND od.orders.placeOrderDate >= :from" : "") +
+						 (to != null ? " AND od.orders.placeOrderDate <= :to" : "") +
+						 " ORDER BY od.orders.placeOrderDate DESC";
+			TypedQuery<OrderDetails> query = mgr.createQuery(jpql, OrderDetails.class).setParameter("farmerId", farmerId);
+			if (from != null)
+				query.setParameter("from", Date.valueOf(from));
+			if (to != null)
+				query.setParameter("to", Date.valueOf(to));
+			return query.getResultList();
 		} catch (Exception e) {
 			e.printStackTrace();
 			return new ArrayList<>();
@@ -131,23 +180,30 @@ public class FarmersDaoImpl implements IFarmersDao {
 									.setParameter("farmerId", farmerId)
 									.getSingleResult();
 
-			// Get total orders and revenue
+			// Get total orders and revenue; archived lines only count through their per-seller totals
 			String orderStatsJpql = "SELECT COUNT(od), SUM(od.quantity), SUM(od.amount) " +
 								   "FROM OrderDetails od WHERE od.farmer.farmerId = :farmerId";
 			Object[] orderStats = (Object[]) mgr.createQuery(orderStatsJpql)
 												.setParameter("farmerId", farmerId)
 												.getSingleResult();
 
-			// Get unique buyers count
-			String uniqueBuyersJpql = "SELECT COUNT(DISTINCT od.orders.user.userId) " +
-									 "FROM OrderDetails od WHERE od.farmer.farmerId = :farmerId";
-			Long uniqueBuyers = mgr.createQuery(uniqueBuyersJpql, Long.class)
-								  .setParameter("farmerId", farmerId)
-								  .getSingleResult();
+			List<Map<String, Object>> archived = jdbc.queryForList(
+					"SELECT order_lines, quantity, amount FROM seller_archive_totals WHERE farmer_id = ?", farmerId);
+
+			// Get unique buyers count, live and archived sales together
+			Long uniqueBuyers = jdbc.queryForObject("SELECT COUNT(*) FROM (SELECT o.user_id FROM order_details od"
+					+ " JOIN orders o ON o.order_id = od.order_id WHERE od.farmer_id = ?"
+					+ " UNION SELECT b.user_id FROM seller_archive_buyers b WHERE b.farmer_id = ?) buyers",
+					Long.class, farmerId, farmerId);
 
 			int totalOrders = orderStats[0] != null ? ((Long) orderStats[0]).intValue() : 0;
 			int totalQuantitySold = orderStats[1] != null ? ((Long) orderStats[1]).intValue() : 0;
 			double totalRevenue = orderStats[2] != null ? ((Double) orderStats[2]) : 0.0;
+			for (Map<String, Object> row : archived) {
+				totalOrders += ((Number) row.get("order_lines")).intValue();
+				totalQuantitySold += ((Number) row.get("quantity")).intValue();
+				totalRevenue += ((Number) row.get("amount")).doubleValue();
+			}
 
 			return new SellerStats(
 				totalProducts.intValue(),
@@ -183,4 +239,119 @@ public class FarmersDaoImpl implements IFarmersDao {
 		}
 	}
 	
+	@Override
+	public Map<String, Integer> getCategoryIds() {
+		Map<String, Integer> ids = new HashMap<>();
+		for (Object[] row : mgr.createQuery("SELECT c.categoryName, c.categoryId FROM Category c", Object[].class)
+				.getResultList())
+			ids.put((String) row[0], (Integer) row[1]);
+		return ids;
+	}
+
+	// unlike IAdminDao.addCategory this lets a failure propagate; a taken name is a DataIntegrityViolationException
+	@Override
+	public int insertCategory(String name) {
+		Category category = new Category();
+		category.setCategoryName(name);
+		mgr.persist(category);
+		mgr.flush();
+		return category.getCategoryId();
+	}
+
+	@Override
+	public Set<String> getTakenStockItemKeys(Collection<String> stockItems) {
+		// stock_item is unique under a case-insensitive collation; one lookup in that index per name
+		Set<String> keys = new HashSet<>();
+		if (stockItems.isEmpty())
+			return keys;
+		for (String item : mgr.createQuery("SELECT s.stockItem FROM StockDetails s WHERE s.stockItem IN :items", String.class)
+				.setParameter("items", stockItems).getResultList())
+			keys.add(item.toLowerCase(Locale.ROOT));
+		return keys;
+	}
+
+	@Override
+	public void insertProducts(int farmerId, List<ImportedProduct> products) {
+		// one JDBC batch: IDENTITY ids keep Hibernate from batching persist()
+		String sql = "INSERT INTO stock_details (stock_item, quantity, price_per_unit, category_id, farmer_id, product_image, description)"
+				+ " VALUES (?, ?, ?, ?, ?, ?, ?)";
+		jdbc.batchUpdate(sql, products, products.size(), (ps, p) -> {
+			ps.setString(1, p.stockItem());
+			ps.setInt(2, p.quantity());
+			ps.setFloat(3, p.pricePerUnit());
+			ps.setObject(4, p.categoryId());
+			ps.setInt(5, farmerId);
+			ps.setString(6, p.imagePath());
+			ps.setString(7, p.description());
+		});
+	}
+
+	@Override
+	public List<ProductUpdateResult> updateProducts(int farmerId, List<ProductUpdate> updates) {
+		// one JDBC batch per statement shape: the columns set and whether the version is checked
+		Map<String, List<Integer>> shapes = new LinkedHashMap<>();
+		for (int i = 0; i < updates.size(); i++)
+			shapes.computeIfAbsent(updateSql(updates.get(i)), sql -> new ArrayList<>()).add(i);
+		int[] counts = new int[updates.size()];
+		for (Map.Entry<String, List<Integer>> shape : shapes.entrySet()) {
+			List<Integer> rows = shape.getValue();
+			int[][] batches = jdbc.batchUpdate(shape.getKey(), rows, rows.size(), (ps, i) -> {
+				ProductUpdate u = updates.get(i);
+				int p = 1;
+				if (u.pricePerUnit() != null)
+					ps.setFloat(p++, u.pricePerUnit());
+				if (u.quantity() != null)
+					ps.setInt(p++, u.quantity());
+				ps.setInt(p++, u.productId());
+				ps.setInt(p++, farmerId);
+				if (u.version() != null)
+					ps.setLong(p, u.version());
+			});
+			int k = 0;
+			for (int[] batch : batches)
+				for (int count : batch)
+					counts[rows.get(k++)] = count;
+		}
+
+		// versions after the update tell updated rows from conflicts and unknown ids
+		Map<Integer, Long> current = new HashMap<>();
+		String jpql = "SELECT s.id, s.version FROM StockDetails s WHERE s.farmer1.farmerId = :farmerId AND s.id IN :ids";
+		for (int from = 0; from < updates.size(); from += 1000) {
+			List<Integer> ids = updates.subList(from, Math.min(from + 1000, updates.size())).stream()
+					.map(ProductUpdate::productId).toList();
+			for (Object[] row : mgr.createQuery(jpql, Object[].class).setParameter("farmerId", farmerId)
+					.setParameter("ids", ids).getResultList())
+				current.put((Integer) row[0], (Long) row[1]);
+		}
+
+		List<ProductUpdateResult> results = new ArrayList<>(updates.size());
+		for (int i = 0; i < updates.size(); i++) {
+			ProductUpdate u = updates.get(i);
+			Long version = current.get(u.productId());
+			Status status;
+			if (version == null)
+				status = Status.NOT_FOUND;
+			else if (counts[i] > 0)
+				status = Status.UPDATED;
+			else if (counts[i] == 0)
+				status = Status.CONFLICT;
+			else // SUCCESS_NO_INFO from a rewritten batch
+				status = u.version() == null || version == u.version() + 1 ? Status.UPDATED : Status.CONFLICT;
+			results.add(new ProductUpdateResult(u.productId(), status, version, null));
+		}
+		return results;
+	}
+
+	private static String updateSql(ProductUpdate u) {
+		StringBuilder sql = new StringBuilder("UPDATE stock_details SET ");
+		if (u.pricePerUnit() != null)
+			sql.append("price_per_unit = ?, ");
+		if (u.quantity() != null)
+			sql.append("quantity = ?, ");
+		sql.append("version = version + 1 WHERE product_id = ? AND farmer_id = ?");
+		if (u.version() != null)
+			sql.append(" AND version = ?");
+		return sql.toString();
+	}
+
 }
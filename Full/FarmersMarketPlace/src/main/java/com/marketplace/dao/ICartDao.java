@@ -0,0 +1,17 @@
+package com.marketplace.dao;
+
+import java.util.List;
+
+import com.marketplace.pojos.CartItem;
+
+public interface ICartDao {
+
+	int touchCart(int userId);
+	void insertCart(int userId);
+	int deleteCart(int userId);
+	List<CartItem> getItems(int userId);
+	List<Integer> getItemIds(int userId);
+	void insertItem(int userId, CartItem item);
+	int deleteItem(int itemId);
+	int deleteIdleCarts(long idleMinutes);
+}
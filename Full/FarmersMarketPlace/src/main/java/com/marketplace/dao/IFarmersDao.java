@@ -1,22 +1,38 @@
 package com.marketplace.dao;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.marketplace.dto.FarmerView;
+import com.marketplace.dto.ImportedProduct;
+import com.marketplace.dto.ProductUpdate;
+import com.marketplace.dto.ProductUpdateResult;
+import com.marketplace.dto.ProductView;
 import com.marketplace.pojos.Farmer;
+import com.marketplace.pojos.OrderDetails;
 import com.marketplace.pojos.StockDetails;
 
 public interface IFarmersDao {
 	
-	List<StockDetails> getAllProduct();
-	List<Farmer> getAllFarmers();
+	List<ProductView> getAllProduct();
+	List<FarmerView> getAllFarmers();
 	Farmer getFarmerDetails(int id);
 	Farmer getFarmerByEmail(String email);
-	List<StockDetails> getFarmerStock(int farmerid);
-	StockDetails getProductDetails(int farmerid, int productid);
+	List<ProductView> getFarmerStock(int farmerid);
+	ProductView getProductDetails(int farmerid, int productid);
 	boolean addProduct(StockDetails product);
 	boolean updateProduct(int productId, StockDetails updatedProduct);
 	boolean deleteProduct(int productId);
-	List<?> getSellerSales(int farmerId);
+	List<OrderDetails> getSellerSales(int farmerId, LocalDate from, LocalDate to);
 	Object getSellerStats(int farmerId);
 	boolean updateSellerProfile(int farmerId, Farmer updatedProfile);
+	Map<String, Integer> getCategoryIds();
+	int insertCategory(String name);
+	Set<String> getTakenStockItemKeys(Collection<String> stockItems);
+	void insertProducts(int farmerId, List<ImportedProduct> products);
+	List<ProductUpdateResult> updateProducts(int farmerId, List<ProductUpdate> updates);
 
 }
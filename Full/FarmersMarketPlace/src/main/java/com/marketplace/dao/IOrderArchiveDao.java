@@ -0,0 +1,16 @@
+package com.marketplace.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.marketplace.pojos.OrderDetails;
+
+public interface IOrderArchiveDao {
+
+	List<Integer> getArchivableOrders(LocalDate placedBefore, int limit);
+	int archiveOrders(List<Integer> orderIds);
+	LocalDate getNewestArchivedDate();
+	List<OrderDetails> getUserOrders(int userId, LocalDate from, LocalDate to);
+	List<OrderDetails> getSellerSales(int farmerId, LocalDate from, LocalDate to);
+	List<OrderDetails> getAllOrders();
+}
@@ -0,0 +1,15 @@
+package com.marketplace.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.marketplace.dto.OrderFilter;
+import com.marketplace.dto.OrderLineView;
+
+public interface IOrderHistoryDao {
+
+	List<OrderLineView> getBuyerPage(int userId, OrderFilter filter, LocalDate afterDate, Integer afterOrderId,
+			int orders, boolean archive);
+	List<OrderLineView> getSellerPage(int farmerId, OrderFilter filter, LocalDate afterDate, Integer afterLineId,
+			int lines, boolean archive);
+}
@@ -1,6 +1,8 @@
 package com.marketplace.dao;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.marketplace.pojos.Cart;
 import com.marketplace.pojos.CartItem;
@@ -9,11 +11,14 @@ import com.marketplace.pojos.User;
 
 public interface IUserDao {
 	
-	public boolean RegisterUser(User user);
-	public User AuthenticateUser(String email, String password);
+	public boolean RegisterUser(User user, boolean checkExisting);
 	public CartItem AddToCart(int productid, int qty);
 	public boolean PlaceOrder(Cart cart, User user);
 	public User getUserDetails(int userId);
-	public List<OrderDetails> getOrder(int userId);
+	public List<OrderDetails> getOrder(int userId, LocalDate from, LocalDate to);
+	public User getUserByEmail(String email);
+	public int updatePassword(int userId, String passwordHash);
+	public Stream<String> streamAllEmails();
+	public Integer getFarmerIdByEmail(String email);
 	
 }
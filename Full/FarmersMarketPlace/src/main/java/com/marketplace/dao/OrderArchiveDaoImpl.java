@@ -0,0 +1,153 @@
+package com.marketplace.dao;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.marketplace.pojos.OrderDetails;
+import com.marketplace.pojos.Orders;
+import com.marketplace.pojos.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * The archive tables (orders_archive, order_details_archive) and the seller
+ * totals kept alongside them. Archived orders are read back as detached
+ * OrderDetails/Orders, shaped like the ones the live queries return.
+ */
+@Repository
+public class OrderArchiveDaoImpl implements IOrderArchiveDao {
+
+	private static final String ORDER_COLUMNS = "order_id, payment_status, delivery_status, user_id, place_order_date, delivery_date";
+	private static final String LINE_COLUMNS = "id, order_item, quantity, amount, farmer_id, order_id, place_order_date";
+	private static final String ARCHIVED_LINES = "SELECT d.id, d.order_item, d.quantity, d.amount, o.order_id,"
+			+ " o.payment_status, o.delivery_status, o.user_id, o.place_order_date, o.delivery_date"
+			+ " FROM order_details_archive d JOIN orders_archive o ON o.order_id = d.order_id";
+	private static final int USER_CHUNK = 1000;
+
+	@PersistenceContext
+	private EntityManager mgr;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private NamedParameterJdbcTemplate named;
+
+	@Override
+	public List<Integer> getArchivableOrders(LocalDate placedBefore, int limit) {
+		return jdbc.queryForList("SELECT order_id FROM orders WHERE delivery_status = true AND place_order_date < ? LIMIT ?",
+				Integer.class, Date.valueOf(placedBefore), limit);
+	}
+
+	@Override
+	public int archiveOrders(List<Integer> orderIds) {
+		Map<String, List<Integer>> ids = Map.of("ids", orderIds);
+		// seller totals first, while the lines are still in order_details
+		for (Map<String, Object> row : named.queryForList("SELECT farmer_id, COUNT(*) AS order_lines,"
+				+ " SUM(quantity) AS quantity, SUM(amount) AS amount FROM order_details"
+				+ " WHERE order_id IN (:ids) AND farmer_id IS NOT NULL GROUP BY farmer_id", ids)) {
+			Object[] args = { ((Number) row.get("order_lines")).longValue(), ((Number) row.get("quantity")).longValue(),
+					((Number) row.get("amount")).doubleValue(), ((Number) row.get("farmer_id")).intValue() };
+			if (jdbc.update("UPDATE seller_archive_totals SET order_lines = order_lines + ?, quantity = quantity + ?,"
+					+ " amount = amount + ? WHERE farmer_id = ?", args) == 0)
+				jdbc.update("INSERT INTO seller_archive_totals (order_lines, quantity, amount, farmer_id)"
+						+ " VALUES (?, ?, ?, ?)", args);
+		}
+		named.update("INSERT INTO seller_archive_buyers (farmer_id, user_id) SELECT DISTINCT od.farmer_id, o.user_id"
+				+ " FROM order_details od JOIN orders o ON o.order_id = od.order_id"
+				+ " WHERE od.order_id IN (:ids) AND od.farmer_id IS NOT NULL AND NOT EXISTS (SELECT 1"
+				+ " FROM seller_archive_buyers b WHERE b.farmer_id = od.farmer_id AND b.user_id = o.user_id)", ids);
+
+		named.update("INSERT INTO orders_archive (" + ORDER_COLUMNS + ") SELECT " + ORDER_COLUMNS
+				+ " FROM orders WHERE order_id IN (:ids)", ids);
+		int lines = named.update("INSERT INTO order_details_archive (" + LINE_COLUMNS + ") SELECT " + LINE_COLUMNS
+				+ " FROM order_details WHERE order_id IN (:ids)", ids);
+		named.update("DELETE FROM order_details WHERE order_id IN (:ids)", ids);
+		named.update("DELETE FROM orders WHERE order_id IN (:ids)", ids);
+		return lines;
+	}
+
+	@Override
+	public LocalDate getNewestArchivedDate() {
+		Date newest = jdbc.queryForObject("SELECT MAX(place_order_date) FROM orders_archive", Date.class);
+		return newest == null ? null : newest.toLocalDate();
+	}
+
+	@Override
+	public List<OrderDetails> getUserOrders(int userId, LocalDate from, LocalDate to) {
+		List<Object> args = new ArrayList<>(List.of(userId));
+		return lines(ARCHIVED_LINES + " WHERE o.user_id = ?" + range(from, to, args), args);
+	}
+
+	@Override
+	public List<OrderDetails> getSellerSales(int farmerId, LocalDate from, LocalDate to) {
+		List<Object> args = new ArrayList<>(List.of(farmerId));
+		return lines(ARCHIVED_LINES + " WHERE d.farmer_id = ?" + range(from, to, args)
+				+ " ORDER BY o.place_order_date DESC", args);
+	}
+
+	@Override
+	public List<OrderDetails> getAllOrders() {
+		return lines(ARCHIVED_LINES, List.of());
+	}
+
+	private static String range(LocalDate from, LocalDate to, List<Object> args) {
+		StringBuilder sql = new StringBuilder();
+		if (from != null) {
+			sql.append(" AND o.place_order_date >= ?");
+			args.add(Date.valueOf(from));
+		}
+		if (to != null) {
+			sql.append(" AND o.place_order_date <= ?");
+			args.add(Date.valueOf(to));
+		}
+		return sql.toString();
+	}
+
+	private List<OrderDetails> lines(String sql, List<Object> args) {
+		Map<Integer, Orders> orders = new HashMap<>();
+		Map<Integer, List<Orders>> ordersByUser = new HashMap<>();
+		List<OrderDetails> lines = jdbc.query(sql, (rs, n) -> new OrderDetails(rs.getInt("id"), rs.getString("order_item"),
+				rs.getInt("quantity"), rs.getDouble("amount"), order(rs, orders, ordersByUser)), args.toArray());
+
+		// the live queries return each order with its buyer, so do the same
+		List<Integer> userIds = new ArrayList<>(ordersByUser.keySet());
+		for (int i = 0; i < userIds.size(); i += USER_CHUNK) {
+			List<Integer> chunk = userIds.subList(i, Math.min(i + USER_CHUNK, userIds.size()));
+			for (User user : mgr.createQuery("SELECT u FROM User u WHERE u.userId IN :ids", User.class)
+					.setParameter("ids", chunk).getResultList())
+				for (Orders order : ordersByUser.get(user.getUserId()))
+					order.setUser(user);
+		}
+		return lines;
+	}
+
+	private static Orders order(ResultSet rs, Map<Integer, Orders> orders, Map<Integer, List<Orders>> ordersByUser)
+			throws SQLException {
+		int orderId = rs.getInt("order_id");
+		Orders order = orders.get(orderId);
+		if (order == null) {
+			order = new Orders();
+			order.setOrderId(orderId);
+			order.setPaymentStatus(rs.getBoolean("payment_status"));
+			order.setDeliveryStatus(rs.getBoolean("delivery_status"));
+			order.setPlaceOrderDate(rs.getDate("place_order_date"));
+			order.setDeliveryDate(rs.getDate("delivery_date"));
+			orders.put(orderId, order);
+			ordersByUser.computeIfAbsent(rs.getInt("user_id"), id -> new ArrayList<>()).add(order);
+		}
+		return order;
+	}
+}
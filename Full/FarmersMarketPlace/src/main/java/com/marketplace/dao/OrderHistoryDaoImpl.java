@@ -0,0 +1,113 @@
+package com.marketplace.dao;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.marketplace.dto.OrderFilter;
+import com.marketplace.dto.OrderLineView;
+
+/**
+ * Keyset pages of order history, newest first, from the live tables or the
+ * archive. A buyer's page is a number of orders, sorted by
+ * (place_order_date, order_id) along idx_orders_user_date_id; a seller's page
+ * is a number of lines, sorted by (place_order_date, id) along
+ * idx_order_details_farmer_date. The next page starts after the given
+ * position, so every page costs the same however deep it is. A buyer's page
+ * takes two statements, the order ids and then their lines, so that neither
+ * reads a derived table.
+ */
+@Repository
+public class OrderHistoryDaoImpl implements IOrderHistoryDao {
+
+	private static final String COLUMNS = "SELECT d.id, o.order_id, o.place_order_date, o.delivery_date,"
+			+ " o.delivery_status, o.payment_status, d.order_item, d.quantity, d.amount, o.user_id, d.farmer_id";
+
+	private static final RowMapper<OrderLineView> LINE = (rs, n) -> {
+		Date delivery = rs.getDate("delivery_date");
+		return new OrderLineView(rs.getInt("id"), rs.getInt("order_id"), rs.getDate("place_order_date").toLocalDate(),
+				delivery == null ? null : delivery.toLocalDate(), rs.getBoolean("delivery_status"),
+				rs.getBoolean("payment_status"), rs.getString("order_item"), rs.getInt("quantity"),
+				rs.getDouble("amount"), rs.getInt("user_id"), rs.getObject("farmer_id", Integer.class));
+	};
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private NamedParameterJdbcTemplate named;
+
+	@Override
+	public List<OrderLineView> getBuyerPage(int userId, OrderFilter filter, LocalDate afterDate, Integer afterOrderId,
+			int orders, boolean archive) {
+		String ordersTable = archive ? "orders_archive" : "orders";
+		String linesTable = archive ? "order_details_archive" : "order_details";
+		List<Object> args = new ArrayList<>(List.of(userId));
+		String sql = "SELECT o.order_id FROM " + ordersTable + " o WHERE o.user_id = ? AND o.place_order_date IS NOT NULL"
+				+ conditions(filter, "o", "o", args) + after("o", "order_id", afterDate, afterOrderId, args)
+				+ " ORDER BY o.place_order_date DESC, o.order_id DESC LIMIT ?";
+		args.add(orders);
+		List<Integer> ids = jdbc.queryForList(sql, Integer.class, args.toArray());
+		if (ids.isEmpty())
+			return List.of();
+		return named.query(COLUMNS + " FROM " + linesTable + " d JOIN " + ordersTable + " o ON o.order_id = d.order_id"
+				+ " WHERE d.order_id IN (:ids) ORDER BY o.place_order_date DESC, o.order_id DESC, d.id DESC",
+				Map.of("ids", ids), LINE);
+	}
+
+	@Override
+	public List<OrderLineView> getSellerPage(int farmerId, OrderFilter filter, LocalDate afterDate, Integer afterLineId,
+			int lines, boolean archive) {
+		String ordersTable = archive ? "orders_archive" : "orders";
+		String linesTable = archive ? "order_details_archive" : "order_details";
+		List<Object> args = new ArrayList<>(List.of(farmerId));
+		String sql = COLUMNS + " FROM " + linesTable + " d JOIN " + ordersTable + " o ON o.order_id = d.order_id"
+				+ " WHERE d.farmer_id = ? AND d.place_order_date IS NOT NULL" + conditions(filter, "d", "o", args)
+				+ after("d", "id", afterDate, afterLineId, args)
+				+ " ORDER BY d.place_order_date DESC, d.id DESC LIMIT ?";
+		args.add(lines);
+		return jdbc.query(sql, LINE, args.toArray());
+	}
+
+	/** The filter on the date column of dated and the status columns of order. */
+	private static String conditions(OrderFilter filter, String dated, String order, List<Object> args) {
+		StringBuilder sql = new StringBuilder();
+		if (filter.from() != null) {
+			sql.append(" AND ").append(dated).append(".place_order_date >= ?");
+			args.add(Date.valueOf(filter.from()));
+		}
+		if (filter.to() != null) {
+			sql.append(" AND ").append(dated).append(".place_order_date <= ?");
+			args.add(Date.valueOf(filter.to()));
+		}
+		if (filter.delivered() != null) {
+			sql.append(" AND ").append(order).append(".delivery_status = ?");
+			args.add(filter.delivered());
+		}
+		if (filter.paid() != null) {
+			sql.append(" AND ").append(order).append(".payment_status = ?");
+			args.add(filter.paid());
+		}
+		return sql.toString();
+	}
+
+	/** Rows sorting after (afterDate, afterId) in newest-first order; nothing on the first page. */
+	private static String after(String alias, String id, LocalDate afterDate, Integer afterId, List<Object> args) {
+		if (afterDate == null)
+			return "";
+		Date date = Date.valueOf(afterDate);
+		args.add(date);
+		args.add(date);
+		args.add(afterId);
+		return " AND (" + alias + ".place_order_date < ? OR (" + alias + ".place_order_date = ? AND " + alias + "."
+				+ id + " < ?))";
+	}
+}
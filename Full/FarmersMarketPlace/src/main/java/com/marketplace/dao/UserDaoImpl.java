@@ -1,9 +1,12 @@
 package com.marketplace.dao;
 
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.Calendar;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Repository;
 
 import com.marketplace.pojos.Cart;
@@ -16,6 +19,7 @@ import com.marketplace.pojos.User;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 
 
 @Repository
@@ -25,16 +29,19 @@ public class UserDaoImpl implements IUserDao {
 	private EntityManager mgr;
 
 	@Override
-	public boolean RegisterUser(User user) {
+	public boolean RegisterUser(User user, boolean checkExisting) {
 		try {
-			// Check if user with email already exists
-			String checkJpql = "SELECT COUNT(u) FROM User u WHERE email=:em";
-			Long count = mgr.createQuery(checkJpql, Long.class)
-					.setParameter("em", user.getEmail())
-					.getSingleResult();
-			
-			if (count > 0) {
-				throw new RuntimeException("Email already exists: " + user.getEmail());
+			// Check if user with email already exists; skipped when the email is
+			// known to be new, the unique constraint still guards the insert
+			if (checkExisting) {
+				String checkJpql = "SELECT COUNT(u) FROM User u WHERE email=:em";
+				Long count = mgr.createQuery(checkJpql, Long.class)
+						.setParameter("em", user.getEmail())
+						.getSingleResult();
+
+				if (count > 0) {
+					throw new DataIntegrityViolationException("Email already exists: " + user.getEmail());
+				}
 			}
 			
 			// Set default admin status if not set
@@ -50,7 +57,6 @@ public class UserDaoImpl implements IUserDao {
 			}
 			
 			mgr.persist(user);
-			mgr.flush(); // Force the persistence to happen immediately
 			
 			// If user is a SELLER, also create a Farmer entry
 			if ("SELLER".equals(user.getUserType())) {
@@ -61,9 +67,9 @@ public class UserDaoImpl implements IUserDao {
 				farmer.setPhoneNo(user.getPhoneNo());
 				farmer.setAddress(user.getAddress());
 				mgr.persist(farmer);
-				mgr.flush();
 				System.out.println("Farmer entry created for seller: " + user.getEmail());
 			}
+			mgr.flush(); // single flush so constraint violations surface here
 			
 			System.out.println("User registered successfully: " + user.getEmail() + " as " + user.getUserType());
 			return true;
@@ -74,13 +80,27 @@ public class UserDaoImpl implements IUserDao {
 	}
 
 	@Override
-	public User AuthenticateUser(String email, String password) {
-		String jpql = "SELECT u FROM User u WHERE email=:em and password=:pass";
-		User user = mgr.createQuery(jpql, User.class).setParameter("em", email)
-				.setParameter("pass", password).getSingleResult();
-		if (user != null)
-			return user;
-		return null;
+	public User getUserByEmail(String email) {
+		String jpql = "SELECT u FROM User u WHERE u.email=:em";
+		return mgr.createQuery(jpql, User.class).setParameter("em", email).getSingleResult();
+	}
+
+	@Override
+	public Integer getFarmerIdByEmail(String email) {
+		List<Integer> ids = mgr.createQuery("SELECT f.farmerId FROM Farmer f WHERE f.email=:em", Integer.class)
+				.setParameter("em", email).getResultList();
+		return ids.isEmpty() ? null : ids.get(0);
+	}
+
+	@Override
+	public Stream<String> streamAllEmails() {
+		return mgr.createQuery("SELECT u.email FROM User u", String.class).getResultStream();
+	}
+
+	@Override
+	public int updatePassword(int userId, String passwordHash) {
+		String jpql = "UPDATE User u SET u.password=:pass WHERE u.userId=:uid";
+		return mgr.createQuery(jpql).setParameter("pass", passwordHash).setParameter("uid", userId).executeUpdate();
 	}
 
 	@Override
@@ -120,7 +140,7 @@ public class UserDaoImpl implements IUserDao {
 		
 		order.setDeliveryStatus(false);
 		order.setPaymentStatus(true);
-		order.setUser(user);
+		order.setUser(mgr.getReference(User.class, user.getUserId()));
 		
 		long millis=System.currentTimeMillis();  
 		order.setPlaceOrderDate(new java.sql.Date(millis));
@@ -133,6 +153,7 @@ public class UserDaoImpl implements IUserDao {
 		mgr.persist(order);
 		for(OrderDetails det : order.getOrderDetails()) {
 			det.setOrders(order);
+			det.setPlaceOrderDate(order.getPlaceOrderDate());
 			mgr.persist(det);
 		}
 		return true;
@@ -152,10 +173,17 @@ public class UserDaoImpl implements IUserDao {
 		}
 	 
 	 @Override
-		public List<OrderDetails> getOrder(int userId) {
+		public List<OrderDetails> getOrder(int userId, LocalDate from, LocalDate to) {
 			 String jpql = "SELECT NEW com.marketplace.pojos.OrderDetails(o.id, o.orderItem, o.quantity, o.amount, o.orders) FROM OrderDetails o "
-			 		+ "JOIN o.orders ord JOIN ord.user u WHERE u.userId =:userid";
-			 return mgr.createQuery(jpql, OrderDetails.class).setParameter("userid", userId).getResultList();
+			 		+ "JOIN o.orders ord JOIN ord.user u WHERE u.userId =:userid"
+			 		+ (from != null ? " AND ord.placeOrderDate >= :from" : "")
+			 		+ (to != null ? " AND ord.placeOrderDate <= :to" : "");
+			 TypedQuery<OrderDetails> query = mgr.createQuery(jpql, OrderDetails.class).setParameter("userid", userId);
+			 if (from != null)
+				 query.setParameter("from", Date.valueOf(from));
+			 if (to != null)
+				 query.setParameter("to", Date.valueOf(to));
+			 return query.getResultList();
 		}
 
 }
@@ -0,0 +1,7 @@
+package com.marketplace.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+@JsonFilter(SparseFields.FILTER)
+public record CategoryView(Integer categoryId, String categoryName) {
+}
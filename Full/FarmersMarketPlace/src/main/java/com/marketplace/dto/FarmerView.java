@@ -0,0 +1,15 @@
+package com.marketplace.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.marketplace.pojos.Farmer;
+
+/** Farmer as the storefront shows it: the profile columns, never the stock or order lists. */
+@JsonFilter(SparseFields.FILTER)
+public record FarmerView(Integer farmerId, String firstname, String lastname, String email, String phoneNo,
+		String address) {
+
+	public static FarmerView of(Farmer f) {
+		return new FarmerView(f.getFarmerId(), f.getFirstname(), f.getLastname(), f.getEmail(), f.getPhoneNo(),
+				f.getAddress());
+	}
+}
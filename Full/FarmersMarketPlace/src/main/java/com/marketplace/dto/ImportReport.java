@@ -0,0 +1,13 @@
+package com.marketplace.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import. Rows are numbered from 1, not counting
+ * the CSV header; only the first max-errors failures are listed.
+ */
+public record ImportReport(long imported, long failed, List<RowError> errors, boolean errorsTruncated) {
+
+	public record RowError(long row, String message) {
+	}
+}
@@ -0,0 +1,6 @@
+package com.marketplace.dto;
+
+/** One validated row of a bulk product import, ready for insertion. */
+public record ImportedProduct(String stockItem, int quantity, float pricePerUnit, Integer categoryId, String imagePath,
+		String description) {
+}
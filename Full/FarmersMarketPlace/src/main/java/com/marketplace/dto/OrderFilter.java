@@ -0,0 +1,22 @@
+package com.marketplace.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of an order history page; null means no filter. from and to are
+ * inclusive order dates.
+ */
+public record OrderFilter(LocalDate from, LocalDate to, Boolean delivered, Boolean paid) {
+
+	/** status is delivered or pending (any case) or null; anything else throws IllegalArgumentException. */
+	public static OrderFilter of(LocalDate from, LocalDate to, String status, Boolean paid) {
+		Boolean delivered = null;
+		if ("delivered".equalsIgnoreCase(status))
+			delivered = true;
+		else if ("pending".equalsIgnoreCase(status))
+			delivered = false;
+		else if (status != null && !status.isEmpty())
+			throw new IllegalArgumentException("Unknown status " + status + ", expected delivered or pending");
+		return new OrderFilter(from, to, delivered, paid);
+	}
+}
@@ -0,0 +1,12 @@
+package com.marketplace.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One order line with its order's columns, as the paged order history
+ * returns it: flat, no nested order, buyer or farmer entities.
+ */
+public record OrderLineView(int lineId, int orderId, LocalDate placeOrderDate, LocalDate deliveryDate,
+		boolean deliveryStatus, boolean paymentStatus, String orderItem, int quantity, double amount, int userId,
+		Integer farmerId) {
+}
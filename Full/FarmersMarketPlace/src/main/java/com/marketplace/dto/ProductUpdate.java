@@ -0,0 +1,10 @@
+package com.marketplace.dto;
+
+/**
+ * One entry of a bulk price/stock update. pricePerUnit and quantity are
+ * optional, but at least one must be present; only those columns are
+ * written. When version is given the row is only updated if it still has
+ * that version.
+ */
+public record ProductUpdate(Integer productId, Float pricePerUnit, Integer quantity, Long version) {
+}
@@ -0,0 +1,15 @@
+package com.marketplace.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one {@link ProductUpdate}, in request order. version is the
+ * row's version after the update, or its current version on a conflict.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductUpdateResult(Integer productId, Status status, Long version, String message) {
+
+	public enum Status {
+		UPDATED, CONFLICT, NOT_FOUND, INVALID
+	}
+}
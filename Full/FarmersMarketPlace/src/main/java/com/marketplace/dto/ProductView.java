@@ -0,0 +1,35 @@
+package com.marketplace.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * A stock row with its category and, for a farmer's own listing, the farmer,
+ * description and version (to send back with a bulk update, see
+ * {@link ProductUpdate}). Property names match the StockDetails JSON the
+ * frontend already reads (category.categoryName, farmer.firstname). The flat
+ * constructors are for JPQL constructor expressions.
+ */
+@JsonFilter(SparseFields.FILTER)
+@JsonInclude(Include.NON_NULL)
+public record ProductView(Integer id, String stockItem, int quantity, float pricePerUnit, CategoryView category,
+		FarmerView farmer, String imagePath, String description, Long version) {
+
+	public ProductView(Integer id, String stockItem, int quantity, float pricePerUnit, Integer categoryId,
+			String categoryName, String imagePath) {
+		this(id, stockItem, quantity, pricePerUnit, category(categoryId, categoryName), null, imagePath, null, null);
+	}
+
+	public ProductView(Integer id, String stockItem, int quantity, float pricePerUnit, Integer categoryId,
+			String categoryName, String imagePath, String description, Long version, Integer farmerId,
+			String firstname, String lastname, String email, String phoneNo, String address) {
+		this(id, stockItem, quantity, pricePerUnit, category(categoryId, categoryName),
+				new FarmerView(farmerId, firstname, lastname, email, phoneNo, address), imagePath, description,
+				version);
+	}
+
+	private static CategoryView category(Integer categoryId, String categoryName) {
+		return categoryId == null ? null : new CategoryView(categoryId, categoryName);
+	}
+}
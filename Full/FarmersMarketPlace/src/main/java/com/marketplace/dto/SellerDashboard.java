@@ -0,0 +1,16 @@
+package com.marketplace.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.marketplace.pojos.Farmer;
+
+/**
+ * Everything the seller dashboard loads on start. A part that failed or did
+ * not finish in time is null and its reason is listed under errors.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SellerDashboard(Farmer profile, List<ProductView> products, List<?> sales, Object stats,
+		Map<String, String> errors) {
+}
@@ -0,0 +1,75 @@
+package com.marketplace.dto;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * Sparse fieldsets for the read DTOs: {@code ?fields=id,stockItem,category.categoryName}
+ * serialises only the named properties. Naming an object keeps all of it;
+ * naming a nested property keeps its parent with just that property. Unknown
+ * names are ignored. Without a fields parameter the body is left alone and
+ * the default filter (see JsonConfig) writes every property.
+ */
+public final class SparseFields extends SimpleBeanPropertyFilter {
+
+	public static final String FILTER = "fields";
+
+	private final Set<String> selected = new HashSet<>();
+	private final Set<String> parents = new HashSet<>();
+
+	private SparseFields(String fields) {
+		for (String field : fields.split(",")) {
+			String path = field.trim();
+			if (path.isEmpty())
+				continue;
+			selected.add(path);
+			for (int dot = path.indexOf('.'); dot > 0; dot = path.indexOf('.', dot + 1))
+				parents.add(path.substring(0, dot));
+		}
+	}
+
+	/** body, or body wrapped with a filter keeping only fields when that is given */
+	public static Object select(Object body, String fields) {
+		if (fields == null || fields.isBlank())
+			return body;
+		MappingJacksonValue value = new MappingJacksonValue(body);
+		value.setFilters(new SimpleFilterProvider().addFilter(FILTER, new SparseFields(fields)));
+		return value;
+	}
+
+	@Override
+	public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer)
+			throws Exception {
+		if (include(path(gen.getOutputContext(), writer.getName())))
+			writer.serializeAsField(pojo, gen, provider);
+		else if (!gen.canOmitFields())
+			writer.serializeAsOmittedField(pojo, gen, provider);
+	}
+
+	private boolean include(String path) {
+		if (selected.contains(path) || parents.contains(path))
+			return true;
+		for (int dot = path.indexOf('.'); dot > 0; dot = path.indexOf('.', dot + 1))
+			if (selected.contains(path.substring(0, dot)))
+				return true;
+		return false;
+	}
+
+	// property names of the enclosing objects, outermost first; list indexes are skipped
+	private static String path(JsonStreamContext context, String name) {
+		String path = name;
+		for (JsonStreamContext c = context.getParent(); c != null; c = c.getParent())
+			if (c.inObject() && c.getCurrentName() != null)
+				path = c.getCurrentName() + '.' + path;
+		return path;
+	}
+}
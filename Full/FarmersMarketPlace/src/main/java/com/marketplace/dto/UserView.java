@@ -0,0 +1,9 @@
+package com.marketplace.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+/** Account listing for the admin pages; the password hash is never selected. */
+@JsonFilter(SparseFields.FILTER)
+public record UserView(Integer userId, String email, String phoneNo, String address, String firstname,
+		String lastname, boolean isadmin, String userType) {
+}
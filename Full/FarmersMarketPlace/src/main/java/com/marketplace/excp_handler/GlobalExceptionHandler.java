@@ -6,6 +6,9 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import com.marketplace.custom_exceptions.CatalogUnavailableException;
+import com.marketplace.custom_exceptions.CoalescedReadTimeoutException;
+import com.marketplace.custom_exceptions.HashingUnavailableException;
 import com.marketplace.custom_exceptions.ResourceNotFoundException;
 import com.marketplace.pojos.ApiResponse;
 
@@ -20,5 +23,23 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 		System.out.println("in handle res not found...");
 		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(e.getMessage()));
 	}
+
+	@ExceptionHandler(HashingUnavailableException.class)
+	public ResponseEntity<?> handleHashingUnavailableException(HashingUnavailableException e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+				.body(new ApiResponse(e.getMessage()));
+	}
+
+	@ExceptionHandler(CoalescedReadTimeoutException.class)
+	public ResponseEntity<?> handleCoalescedReadTimeoutException(CoalescedReadTimeoutException e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+				.body(new ApiResponse(e.getMessage()));
+	}
+
+	@ExceptionHandler(CatalogUnavailableException.class)
+	public ResponseEntity<?> handleCatalogUnavailableException(CatalogUnavailableException e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5")
+				.body(new ApiResponse(e.getMessage()));
+	}
 	
 }
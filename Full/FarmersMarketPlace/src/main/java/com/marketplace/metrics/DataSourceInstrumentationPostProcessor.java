@@ -0,0 +1,25 @@
+package com.marketplace.metrics;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DataSourceInstrumentationPostProcessor implements BeanPostProcessor {
+
+	// resolved lazily: post-processors are created before ordinary beans
+	private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+	public DataSourceInstrumentationPostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+		this.slowQueryLog = slowQueryLog;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource ds && !(bean instanceof InstrumentedDataSource))
+			return new InstrumentedDataSource(ds, slowQueryLog.getObject());
+		return bean;
+	}
+}
@@ -0,0 +1,182 @@
+package com.marketplace.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps the pool so every statement execution is timed into {@link JdbcTiming}
+ * and executions over the slow-query threshold are handed to
+ * {@link SlowQueryLog} with their SQL, bind values and row count. Everything
+ * else is passed straight through to the pooled objects.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+	private final SlowQueryLog slowQueryLog;
+
+	public InstrumentedDataSource(DataSource target, SlowQueryLog slowQueryLog) {
+		super(target);
+		this.slowQueryLog = slowQueryLog;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return wrapConnection(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrapConnection(super.getConnection(username, password));
+	}
+
+	private Connection wrapConnection(Connection con) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+				new ConnectionHandler(con, this));
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private static final class ConnectionHandler implements InvocationHandler {
+		private final Connection target;
+		private final InstrumentedDataSource owner;
+
+		ConnectionHandler(Connection target, InstrumentedDataSource owner) {
+			this.target = target;
+			this.owner = owner;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = InstrumentedDataSource.invoke(target, method, args);
+			Class<?> type;
+			if (result instanceof CallableStatement)
+				type = CallableStatement.class;
+			else if (result instanceof PreparedStatement)
+				type = PreparedStatement.class;
+			else if (result instanceof Statement)
+				type = Statement.class;
+			else
+				return result;
+			// prepareStatement / prepareCall carry the SQL; createStatement passes it to execute
+			String sql = type != Statement.class && args != null && args[0] instanceof String s ? s : null;
+			return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[] { type },
+					new StatementHandler((Statement) result, sql, owner));
+		}
+	}
+
+	private static final class StatementHandler implements InvocationHandler {
+		private final Statement target;
+		private final String preparedSql;
+		private final InstrumentedDataSource owner;
+		private Object[] binds;
+		private int bindCount;
+
+		StatementHandler(Statement target, String preparedSql, InstrumentedDataSource owner) {
+			this.target = target;
+			this.preparedSql = preparedSql;
+			this.owner = owner;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (!name.startsWith("execute")) {
+				if (preparedSql != null && owner.slowQueryLog.enabled())
+					captureBind(name, args);
+				return InstrumentedDataSource.invoke(target, method, args);
+			}
+			long start = System.nanoTime();
+			Object result;
+			try {
+				result = InstrumentedDataSource.invoke(target, method, args);
+			} catch (Throwable t) {
+				JdbcTiming.add(System.nanoTime() - start);
+				throw t;
+			}
+			long elapsed = System.nanoTime() - start;
+			JdbcTiming.add(elapsed);
+			return owner.slowQueryLog.isSlow(elapsed) ? recordSlow(result, args, elapsed) : result;
+		}
+
+		private void captureBind(String name, Object[] args) {
+			if (name.equals("clearParameters")) {
+				binds = null;
+				bindCount = 0;
+				return;
+			}
+			if (!name.startsWith("set") || args == null || args.length < 2 || !(args[0] instanceof Integer index))
+				return;
+			if (binds == null || binds.length < index)
+				binds = Arrays.copyOf(binds == null ? new Object[0] : binds, Math.max(index, 8));
+			Object value = args[1];
+			if (name.equals("setNull"))
+				value = null;
+			else if (!(value instanceof Number || value instanceof CharSequence || value instanceof Boolean
+					|| value instanceof java.util.Date || value instanceof java.time.temporal.Temporal
+					|| value instanceof byte[]))
+				value = value == null ? null : "<" + value.getClass().getSimpleName() + ">";
+			binds[index - 1] = value;
+			bindCount = Math.max(bindCount, index);
+		}
+
+		/** Returns the (possibly wrapped) result so row counting can continue after execute returns. */
+		private Object recordSlow(Object result, Object[] args, long elapsed) throws SQLException {
+			String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 ? String.valueOf(args[0]) : "?";
+			Object[] bound = binds == null ? null : Arrays.copyOf(binds, bindCount);
+			long rows = -1;
+			if (result instanceof Integer n)
+				rows = n;
+			else if (result instanceof Long n)
+				rows = n;
+			else if (result instanceof int[] batch)
+				rows = Arrays.stream(batch).filter(n -> n >= 0).sum();
+			else if (result instanceof long[] batch)
+				rows = Arrays.stream(batch).filter(n -> n >= 0).sum();
+			SlowQueryLog.Entry entry = owner.slowQueryLog.record(sql, bound, elapsed, rows, owner.getTargetDataSource());
+			if (result instanceof ResultSet rs)
+				return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+						new Class<?>[] { ResultSet.class }, new RowCountingHandler(rs, entry));
+			return result;
+		}
+	}
+
+	/** Counts rows of a slow query's result set and stores the count when it is closed. */
+	private static final class RowCountingHandler implements InvocationHandler {
+		private final ResultSet target;
+		private final SlowQueryLog.Entry entry;
+		private long rows;
+
+		RowCountingHandler(ResultSet target, SlowQueryLog.Entry entry) {
+			this.target = target;
+			this.entry = entry;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = InstrumentedDataSource.invoke(target, method, args);
+			if (method.getName().equals("next") && Boolean.TRUE.equals(result))
+				rows++;
+			else if (method.getName().equals("close"))
+				entry.rows = rows;
+			return result;
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.marketplace.metrics;
+
+/**
+ * Per-thread running total of time spent inside JDBC execute calls. DAO timing
+ * reads it before and after a DAO method to split database time from the time
+ * Hibernate spends mapping rows into objects.
+ */
+public final class JdbcTiming {
+
+	private static final ThreadLocal<long[]> NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+	private JdbcTiming() {
+	}
+
+	public static void add(long nanos) {
+		NANOS.get()[0] += nanos;
+	}
+
+	public static long current() {
+		return NANOS.get()[0];
+	}
+}
@@ -0,0 +1,83 @@
+package com.marketplace.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.Meter.MeterProvider;
+
+/**
+ * Times every service and DAO method. Services record service.method; DAOs
+ * record dao.query (time inside JDBC execute calls) and dao.mapping (the rest:
+ * Hibernate hydration, result conversion). All are tagged with the interface,
+ * method and outcome; percentiles are configured in application.properties.
+ */
+@Aspect
+@Component
+public class LatencyAspect {
+
+	private final MeterProvider<Timer> serviceTimer;
+	private final MeterProvider<Timer> daoQueryTimer;
+	private final MeterProvider<Timer> daoMappingTimer;
+
+	public LatencyAspect(MeterRegistry registry) {
+		serviceTimer = Timer.builder("service.method").withRegistry(registry);
+		daoQueryTimer = Timer.builder("dao.query").withRegistry(registry);
+		daoMappingTimer = Timer.builder("dao.mapping").withRegistry(registry);
+	}
+
+	@Around("execution(* com.marketplace.service.IAdminService.*(..))"
+			+ " || execution(* com.marketplace.service.IFarmersService.*(..))"
+			+ " || execution(* com.marketplace.service.IUserService.*(..))")
+	public Object timeService(ProceedingJoinPoint pjp) throws Throwable {
+		long start = System.nanoTime();
+		String exception = "none";
+		try {
+			return pjp.proceed();
+		} catch (Throwable t) {
+			exception = t.getClass().getSimpleName();
+			throw t;
+		} finally {
+			serviceTimer.withTags(tags(pjp, exception)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Around("execution(* com.marketplace.dao.IAdminDao.*(..))"
+			+ " || execution(* com.marketplace.dao.IFarmersDao.*(..))"
+			+ " || execution(* com.marketplace.dao.IUserDao.*(..))"
+			+ " || execution(* com.marketplace.dao.IOrderArchiveDao.*(..))"
+			+ " || execution(* com.marketplace.dao.IOrderHistoryDao.*(..))")
+	public Object timeDao(ProceedingJoinPoint pjp) throws Throwable {
+		long jdbcBefore = JdbcTiming.current();
+		String previousCaller = SlowQueryLog.enterCaller(pjp.getSignature().getDeclaringType().getSimpleName() + "."
+				+ pjp.getSignature().getName());
+		long start = System.nanoTime();
+		String exception = "none";
+		try {
+			return pjp.proceed();
+		} catch (Throwable t) {
+			exception = t.getClass().getSimpleName();
+			throw t;
+		} finally {
+			SlowQueryLog.exitCaller(previousCaller);
+			long total = System.nanoTime() - start;
+			long jdbc = Math.min(total, JdbcTiming.current() - jdbcBefore);
+			Tags tags = tags(pjp, exception);
+			daoQueryTimer.withTags(tags).record(jdbc, TimeUnit.NANOSECONDS);
+			daoMappingTimer.withTags(tags).record(total - jdbc, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private Tags tags(ProceedingJoinPoint pjp, String exception) {
+		MethodSignature sig = (MethodSignature) pjp.getSignature();
+		return Tags.of("class", sig.getDeclaringType().getSimpleName(), "method", sig.getName(),
+				"outcome", "none".equals(exception) ? "SUCCESS" : "ERROR", "exception", exception);
+	}
+}
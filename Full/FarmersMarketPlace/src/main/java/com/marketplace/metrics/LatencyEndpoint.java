@@ -0,0 +1,66 @@
+package com.marketplace.metrics;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * /actuator/latency: one line per endpoint / service method / DAO method with
+ * count and p50..p999 in milliseconds, for a quick look without Prometheus.
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+	private static final String[] TIMERS = { "http.server.requests", "service.method", "dao.query", "dao.mapping" };
+
+	private final MeterRegistry registry;
+
+	public LatencyEndpoint(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@ReadOperation
+	public Map<String, List<Map<String, Object>>> latency() {
+		Map<String, List<Map<String, Object>>> result = new LinkedHashMap<>();
+		for (String name : TIMERS) {
+			List<Map<String, Object>> rows = new ArrayList<>();
+			for (Timer timer : registry.find(name).timers()) {
+				HistogramSnapshot snapshot = timer.takeSnapshot();
+				Map<String, Object> row = new LinkedHashMap<>();
+				for (Tag tag : timer.getId().getTags())
+					row.put(tag.getKey(), tag.getValue());
+				row.put("count", snapshot.count());
+				row.put("meanMs", round(snapshot.mean(TimeUnit.MILLISECONDS)));
+				for (ValueAtPercentile p : snapshot.percentileValues())
+					row.put("p" + percentileLabel(p.percentile()), round(p.value(TimeUnit.MILLISECONDS)));
+				row.put("maxMs", round(snapshot.max(TimeUnit.MILLISECONDS)));
+				rows.add(row);
+			}
+			result.put(name, rows);
+		}
+		return result;
+	}
+
+	// 0.5 -> "50", 0.999 -> "999"
+	private static String percentileLabel(double percentile) {
+		return BigDecimal.valueOf(percentile).movePointRight(2).stripTrailingZeros().toPlainString().replace(".", "");
+	}
+
+	private static double round(double ms) {
+		return Math.round(ms * 100) / 100.0;
+	}
+}
@@ -0,0 +1,74 @@
+package com.marketplace.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.cache.CacheManager;
+
+import org.hibernate.SessionFactory;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * /actuator/l2cache: hits, misses, hit ratio, puts, evictions and removals per
+ * second-level cache region since startup. DELETE evicts every region, for
+ * after rows were changed directly in the database; it is refused with 403
+ * unless the caller is an admin, whatever the URL rules let through.
+ */
+@Component
+@Endpoint(id = "l2cache")
+public class SecondLevelCacheEndpoint {
+
+	private final MeterRegistry registry;
+	private final CacheManager cacheManager;
+	private final EntityManagerFactory emf;
+
+	public SecondLevelCacheEndpoint(MeterRegistry registry, CacheManager cacheManager, EntityManagerFactory emf) {
+		this.registry = registry;
+		this.cacheManager = cacheManager;
+		this.emf = emf;
+	}
+
+	@ReadOperation
+	public Map<String, Map<String, Object>> regions() {
+		Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+		for (String region : cacheManager.getCacheNames()) {
+			long hits = count(registry.find("cache.gets").tag("cache", region).tag("result", "hit"));
+			long misses = count(registry.find("cache.gets").tag("cache", region).tag("result", "miss"));
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("hits", hits);
+			row.put("misses", misses);
+			row.put("hitRatio", hits + misses == 0 ? 0 : Math.round(hits * 1000.0 / (hits + misses)) / 1000.0);
+			row.put("puts", count(registry.find("cache.puts").tag("cache", region)));
+			row.put("evictions", count(registry.find("cache.evictions").tag("cache", region)));
+			row.put("removals", count(registry.find("cache.removals").tag("cache", region)));
+			result.put(region, row);
+		}
+		return result;
+	}
+
+	@DeleteOperation
+	public WebEndpointResponse<Void> evictAll(SecurityContext security) {
+		if (!security.isUserInRole("ADMIN"))
+			return new WebEndpointResponse<>(403);
+		emf.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+	}
+
+	private static long count(Search search) {
+		FunctionCounter counter = search.functionCounter();
+		if (counter != null)
+			return (long) counter.count();
+		// JCacheMetrics reports some of these as gauges
+		return search.gauge() == null ? 0 : (long) search.gauge().value();
+	}
+}
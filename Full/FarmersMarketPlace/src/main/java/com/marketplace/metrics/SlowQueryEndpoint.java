@@ -0,0 +1,33 @@
+package com.marketplace.metrics;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/slowqueries: the recent slow statements, newest first. DELETE
+ * clears the buffer.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+	private final SlowQueryLog log;
+
+	public SlowQueryEndpoint(SlowQueryLog log) {
+		this.log = log;
+	}
+
+	@ReadOperation
+	public List<SlowQueryLog.Entry> slowQueries() {
+		return log.entries();
+	}
+
+	@DeleteOperation
+	public void clear() {
+		log.clear();
+	}
+}
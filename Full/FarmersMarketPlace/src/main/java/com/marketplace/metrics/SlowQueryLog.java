@@ -0,0 +1,248 @@
+package com.marketplace.metrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter.MeterProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the most recent statements that took longer than
+ * slow-query.threshold-ms in a fixed-size ring buffer (served at
+ * /actuator/slowqueries). Each entry carries the calling DAO method, the JPQL
+ * (taken from the comment Hibernate prepends when use_sql_comments is on), the
+ * SQL, redacted bind values and the row count. For SELECTs an EXPLAIN is run on
+ * a separate connection by a single background thread, so the request that hit
+ * the slow query never waits for it.
+ */
+@Component
+public class SlowQueryLog {
+
+	private static final ThreadLocal<String> CALLER = new ThreadLocal<>();
+	private static final Pattern LEADING_COMMENT = Pattern.compile("^\\s*/\\*\\s*(.*?)\\s*\\*/\\s*", Pattern.DOTALL);
+	private static final Pattern INSERT_COLUMNS = Pattern.compile("^\\s*insert\\s+into\\s+\\S+\\s*\\(([^)]*)\\)",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern COLUMN_BEFORE_BIND = Pattern
+			.compile("([\\w.]+)\\s*(?:=|<>|!=|<=|>=|<|>|\\s+like|\\s+in\\s*\\()\\s*$", Pattern.CASE_INSENSITIVE);
+
+	private final long thresholdNanos;
+	private final boolean explain;
+	private final Set<String> redactColumns;
+	private final AtomicReferenceArray<Entry> ring;
+	private final AtomicLong sequence = new AtomicLong();
+	private final ThreadPoolExecutor explainExecutor;
+	private final MeterProvider<Counter> slowCounter;
+
+	public SlowQueryLog(@Value("${slow-query.threshold-ms:200}") long thresholdMs,
+			@Value("${slow-query.capacity:100}") int capacity,
+			@Value("${slow-query.explain:true}") boolean explain,
+			@Value("${slow-query.redact-columns:password,email,phone_no,address}") String[] redactColumns,
+			MeterRegistry registry) {
+		this.thresholdNanos = thresholdMs < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+		this.explain = explain;
+		this.redactColumns = Arrays.stream(redactColumns).map(c -> c.trim().toLowerCase(Locale.ROOT))
+				.collect(Collectors.toUnmodifiableSet());
+		this.ring = new AtomicReferenceArray<>(capacity);
+		// one thread, small queue: EXPLAINs are best effort and dropped when it falls behind
+		this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+				r -> {
+					Thread t = new Thread(r, "slow-query-explain");
+					t.setDaemon(true);
+					return t;
+				}, new ThreadPoolExecutor.DiscardPolicy());
+		this.slowCounter = Counter.builder("jdbc.slow.queries").withRegistry(registry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		explainExecutor.shutdownNow();
+	}
+
+	/** Set by the DAO timing aspect so statements can be attributed to a DAO method. */
+	static String enterCaller(String caller) {
+		String previous = CALLER.get();
+		CALLER.set(caller);
+		return previous;
+	}
+
+	static void exitCaller(String previous) {
+		if (previous == null)
+			CALLER.remove();
+		else
+			CALLER.set(previous);
+	}
+
+	boolean enabled() {
+		return thresholdNanos >= 0;
+	}
+
+	boolean isSlow(long elapsedNanos) {
+		return thresholdNanos >= 0 && elapsedNanos >= thresholdNanos;
+	}
+
+	/**
+	 * Records a slow statement. binds are the raw values by parameter index (may be
+	 * null for plain statements); they are redacted for the stored entry and only
+	 * kept unredacted until the EXPLAIN has run.
+	 */
+	Entry record(String sql, Object[] binds, long elapsedNanos, long rows, DataSource explainSource) {
+		String caller = CALLER.get();
+		Matcher m = LEADING_COMMENT.matcher(sql);
+		boolean commented = m.find();
+		String jpql = commented ? m.group(1) : null;
+		String statement = commented ? sql.substring(m.end()) : sql;
+		Entry entry = new Entry(Instant.now(), caller == null ? "unknown" : caller, jpql, statement,
+				redact(statement, binds), TimeUnit.NANOSECONDS.toMicros(elapsedNanos) / 1000.0, rows);
+		ring.set((int) (sequence.getAndIncrement() % ring.length()), entry);
+		slowCounter.withTags("caller", entry.caller).increment();
+		if (explain && explainSource != null && statement.regionMatches(true, 0, "select", 0, 6))
+			explainExecutor.execute(() -> entry.plan = explain(explainSource, statement, binds));
+		return entry;
+	}
+
+	/** Newest first. */
+	public List<Entry> entries() {
+		List<Entry> list = new ArrayList<>(ring.length());
+		long end = sequence.get();
+		for (long i = end - 1; i >= 0 && i >= end - ring.length(); i--) {
+			Entry e = ring.get((int) (i % ring.length()));
+			if (e != null)
+				list.add(e);
+		}
+		return list;
+	}
+
+	public void clear() {
+		for (int i = 0; i < ring.length(); i++)
+			ring.set(i, null);
+	}
+
+	private List<Object> redact(String statement, Object[] binds) {
+		if (binds == null)
+			return List.of();
+		List<String> columns = bindColumns(statement);
+		List<Object> out = new ArrayList<>(binds.length);
+		for (int i = 0; i < binds.length; i++) {
+			Object value = binds[i];
+			String column = i < columns.size() ? columns.get(i) : null;
+			if (value == null || value instanceof Number || value instanceof Boolean)
+				out.add(value);
+			else if (column != null && redactColumns.contains(column))
+				out.add("***");
+			else if (value instanceof byte[] bytes)
+				out.add("<" + bytes.length + " bytes>");
+			else if (column == null && value instanceof CharSequence)
+				out.add("***"); // can't tell what it is bound to, so don't show it
+			else
+				out.add(String.valueOf(value));
+		}
+		return out;
+	}
+
+	/**
+	 * Best-effort column name for each '?' in the statement: the INSERT column list,
+	 * or the identifier before the comparison (or SET assignment) the bind belongs to.
+	 */
+	private static List<String> bindColumns(String statement) {
+		List<String> columns = new ArrayList<>();
+		Matcher insert = INSERT_COLUMNS.matcher(statement);
+		if (insert.find()) {
+			for (String c : insert.group(1).split(","))
+				columns.add(bare(c));
+			return columns;
+		}
+		String inColumn = null;
+		for (int i = 0; i < statement.length(); i++) {
+			char c = statement.charAt(i);
+			if (c == ')')
+				inColumn = null;
+			if (c != '?')
+				continue;
+			String column = inColumn;
+			if (column == null) {
+				Matcher m = COLUMN_BEFORE_BIND.matcher(statement.substring(Math.max(0, i - 80), i));
+				if (m.find()) {
+					column = bare(m.group(1));
+					if (m.group().trim().endsWith("("))
+						inColumn = column;
+				}
+			}
+			columns.add(column);
+		}
+		return columns;
+	}
+
+	private static String bare(String column) {
+		String c = column.trim();
+		int dot = c.lastIndexOf('.');
+		return (dot >= 0 ? c.substring(dot + 1) : c).replace("`", "").toLowerCase(Locale.ROOT);
+	}
+
+	private static List<Map<String, Object>> explain(DataSource ds, String statement, Object[] binds) {
+		try (Connection con = ds.getConnection(); PreparedStatement ps = con.prepareStatement("EXPLAIN " + statement)) {
+			con.setReadOnly(true);
+			if (binds != null)
+				for (int i = 0; i < binds.length; i++)
+					ps.setObject(i + 1, binds[i]);
+			List<Map<String, Object>> plan = new ArrayList<>();
+			try (ResultSet rs = ps.executeQuery()) {
+				ResultSetMetaData md = rs.getMetaData();
+				while (rs.next()) {
+					Map<String, Object> row = new LinkedHashMap<>();
+					for (int c = 1; c <= md.getColumnCount(); c++)
+						row.put(md.getColumnLabel(c), rs.getObject(c));
+					plan.add(row);
+				}
+			}
+			return plan;
+		} catch (Exception e) {
+			return List.of(Map.of("error", String.valueOf(e.getMessage())));
+		}
+	}
+
+	public static final class Entry {
+		public final Instant at;
+		public final String caller;
+		public final String jpql;
+		public final String sql;
+		public final List<Object> binds;
+		public final double elapsedMs;
+		public volatile long rows;
+		public volatile List<Map<String, Object>> plan;
+
+		Entry(Instant at, String caller, String jpql, String sql, List<Object> binds, double elapsedMs, long rows) {
+			this.at = at;
+			this.caller = caller;
+			this.jpql = jpql;
+			this.sql = sql;
+			this.binds = binds;
+			this.elapsedMs = elapsedMs;
+			this.rows = rows;
+		}
+	}
+}
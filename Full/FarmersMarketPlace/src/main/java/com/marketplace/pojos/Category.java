@@ -3,9 +3,17 @@ package com.marketplace.pojos;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
-import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -18,6 +26,12 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 @Entity
 @Table(name = "category")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
+@NaturalIdCache(region = "category-by-name")
+// remove() only sets "deleted"; PurgeService deletes the row and its products later
+@SQLDelete(sql = "UPDATE category SET deleted = true WHERE category_id = ?")
+@SQLRestriction("deleted = false")
 public class Category{
 
     @Id
@@ -25,10 +39,16 @@ public class Category{
     @Column(name = "category_id")
     private Integer categoryId;
 
+    @NaturalId
     @Column(name = "category_name", unique = true)
     private String categoryName;
 
-    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    @JsonIgnore
+    private boolean deleted;
+
+    @OneToMany(mappedBy = "category")
     @JsonIgnore
     private List<StockDetails> stockDetails;
 
@@ -8,7 +8,13 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
-import jakarta.persistence.CascadeType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -20,6 +26,11 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "farmer")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "farmer")
+// remove() only sets "deleted"; PurgeService deletes the row and its stock and order lines later
+@SQLDelete(sql = "UPDATE farmer SET deleted = true WHERE farmer_id = ?")
+@SQLRestriction("deleted = false")
 public class Farmer implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -44,11 +55,16 @@ public class Farmer implements Serializable {
 	@Column(length = 200)
 	private String address;
 
-	@OneToMany(mappedBy = "farmer", cascade = CascadeType.REMOVE, orphanRemoval = true)
+	@ColumnDefault("false")
+	@Column(nullable = false)
+	@JsonIgnore
+	private boolean deleted;
+
+	@OneToMany(mappedBy = "farmer")
 	@JsonIgnore
 	private List<OrderDetails> orderDetails;
 
-	@OneToMany(mappedBy = "farmer1", cascade = CascadeType.REMOVE, orphanRemoval = true)
+	@OneToMany(mappedBy = "farmer1")
 	@JsonInclude(Include.NON_NULL)
 //	@JsonIgnore
 	private List<StockDetails> stock = new ArrayList<StockDetails>();
@@ -1,6 +1,9 @@
 package com.marketplace.pojos;
 
 import java.io.Serializable;
+import java.sql.Date;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -38,6 +41,11 @@ public class OrderDetails implements Serializable {
 	@JoinColumn(name = "order_id", nullable = false)
 	private Orders orders;
 
+	// copy of the order's date, so a seller's lines page by date along an index
+	@JsonIgnore
+	@Column(name = "place_order_date")
+	private Date placeOrderDate;
+
 	public OrderDetails() {
 		System.out.println("OrderDetails Constructor invoked");
 	}
@@ -51,6 +59,14 @@ public class OrderDetails implements Serializable {
 		this.orders = orders;
 	}
 
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer aId) {
+		id = aId;
+	}
+
 	public String getOrderItem() {
 		return orderItem;
 	}
@@ -91,6 +107,14 @@ public class OrderDetails implements Serializable {
 		orders = aOrders;
 	}
 
+	public Date getPlaceOrderDate() {
+		return placeOrderDate;
+	}
+
+	public void setPlaceOrderDate(Date aPlaceOrderDate) {
+		placeOrderDate = aPlaceOrderDate;
+	}
+
 	@Override
 	public String toString() {
 		return "OrderDetails [orderItem=" + orderItem + ", quantity=" + quantity + ", amount=" + amount + ", farmer="
@@ -2,6 +2,10 @@ package com.marketplace.pojos;
 
 import java.io.Serializable;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
@@ -13,11 +17,14 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 
 @Entity
 @Table(name = "stock_details")
 @JsonInclude(Include.NON_NULL)
+// UPDATE only the columns that changed (a repricing touches price_per_unit alone)
+@DynamicUpdate
 public class StockDetails implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -41,6 +48,10 @@ public class StockDetails implements Serializable {
 //	@JsonIgnore
 	private Category category;
 
+	// the raw foreign key, for queries: a join to a deleted category finds no row, this still shows one was set
+	@Column(name = "category_id", insertable = false, updatable = false)
+	private Integer categoryId;
+
 	@ManyToOne
 	@JoinColumn(name = "farmer_id")
 //	@JsonIgnore
@@ -52,6 +63,12 @@ public class StockDetails implements Serializable {
 	@Column(name = "description", length = 500)
 	private String description;
 
+	// optimistic locking; bumped by every update, including the bulk price/stock UPDATEs
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private long version;
+
 	public StockDetails() {
 		System.out.println("StockDetails Constructor invoked");
 	}
@@ -122,6 +139,8 @@ public class StockDetails implements Serializable {
 		category = aCategory;
 	}
 
+	// serialised as "farmer"; its stock list would lead back here
+	@JsonIgnoreProperties("stock")
 	public Farmer getFarmer() {
 		return farmer1;
 	}
@@ -146,6 +165,14 @@ public class StockDetails implements Serializable {
 		this.description = description;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
 	@Override
 	public String toString() {
 		return "StockDetails [id=" + id + ", stockItem=" + stockItem + ", quantity=" + quantity + ", pricePerUnit="
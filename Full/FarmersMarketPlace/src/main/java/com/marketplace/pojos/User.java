@@ -3,6 +3,7 @@ package com.marketplace.pojos;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -24,7 +25,9 @@ public class User{
 	@Column(unique = true, length = 50)
 	private String email;
 
-	@Column(length = 30)
+	// read from a registration, never written into a response
+	@Column(length = 100)
+	@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
 	private String password;
 
 	@Column(name = "phone_no", length = 15)
@@ -0,0 +1,50 @@
+package com.marketplace.security;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates a request from the Bearer token alone: the signature and
+ * expiry are checked and the claims become the principal, no user lookup.
+ * Requests without a (valid) token continue unauthenticated and are judged by
+ * the rules in SecurityConfig.
+ *
+ * Not a bean on purpose: Boot would otherwise also register it as a plain
+ * servlet filter outside the security chain.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+	private static final String BEARER = "Bearer ";
+
+	private final JwtUtils jwtUtils;
+
+	public JwtAuthenticationFilter(JwtUtils jwtUtils) {
+		this.jwtUtils = jwtUtils;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (header != null && header.startsWith(BEARER)) {
+			JwtPrincipal principal = jwtUtils.parseAccessToken(header.substring(BEARER.length()));
+			if (principal != null) {
+				UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(principal, null,
+						List.of(new SimpleGrantedAuthority(principal.getRole())));
+				SecurityContextHolder.getContext().setAuthentication(auth);
+			}
+		}
+		chain.doFilter(request, response);
+	}
+}
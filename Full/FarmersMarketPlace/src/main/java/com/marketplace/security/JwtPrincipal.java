@@ -0,0 +1,22 @@
+package com.marketplace.security;
+
+import com.marketplace.pojos.User;
+
+/**
+ * Identity of the caller as carried in the signed token claims. Built by
+ * {@link JwtAuthenticationFilter} without touching the database. farmerId is
+ * the farmer profile of a SELLER (registered with the same email), null for
+ * everyone else.
+ */
+public record JwtPrincipal(int userId, String email, String userType, boolean admin, Integer farmerId) {
+
+	public static JwtPrincipal of(User user, Integer farmerId) {
+		return new JwtPrincipal(user.getUserId(), user.getEmail(), user.getUserType(), user.isIsadmin(), farmerId);
+	}
+
+	public String getRole() {
+		if (admin)
+			return "ROLE_ADMIN";
+		return "ROLE_" + (userType != null ? userType : "BUYER");
+	}
+}
@@ -0,0 +1,107 @@
+package com.marketplace.security;
+
+import java.util.Date;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Issues and verifies access / refresh tokens. The signing key and parser are
+ * built once at startup and shared by all request threads.
+ */
+@Component
+public class JwtUtils {
+
+	public static final String CLAIM_USER_ID = "uid";
+	public static final String CLAIM_USER_TYPE = "type";
+	public static final String CLAIM_ADMIN = "admin";
+	public static final String CLAIM_KIND = "kind";
+	public static final String CLAIM_FARMER_ID = "fid";
+
+	private static final String KIND_ACCESS = "access";
+	private static final String KIND_REFRESH = "refresh";
+
+	@Value("${jwt.secret}")
+	private String secret;
+
+	@Value("${jwt.expiration.ms:900000}")
+	private long accessExpirationMs;
+
+	@Value("${jwt.refresh.expiration.ms:604800000}")
+	private long refreshExpirationMs;
+
+	private SecretKey key;
+	private JwtParser parser;
+
+	@PostConstruct
+	public void init() {
+		if (secret == null || secret.isBlank())
+			throw new IllegalStateException("jwt.secret is empty: set JWT_SECRET to a base64 key of at least 256 bits");
+		key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+		parser = Jwts.parser().verifyWith(key).build();
+	}
+
+	public String generateAccessToken(JwtPrincipal principal) {
+		return build(principal, KIND_ACCESS, accessExpirationMs);
+	}
+
+	public String generateRefreshToken(JwtPrincipal principal) {
+		return build(principal, KIND_REFRESH, refreshExpirationMs);
+	}
+
+	/**
+	 * Returns the principal for a valid access token, or null if the token is
+	 * malformed, expired, badly signed or is a refresh token.
+	 */
+	public JwtPrincipal parseAccessToken(String token) {
+		return parse(token, KIND_ACCESS);
+	}
+
+	public JwtPrincipal parseRefreshToken(String token) {
+		return parse(token, KIND_REFRESH);
+	}
+
+	public long getAccessExpirationMs() {
+		return accessExpirationMs;
+	}
+
+	private String build(JwtPrincipal principal, String kind, long lifetimeMs) {
+		long now = System.currentTimeMillis();
+		return Jwts.builder()
+				.subject(principal.email())
+				.claim(CLAIM_USER_ID, principal.userId())
+				.claim(CLAIM_USER_TYPE, principal.userType())
+				.claim(CLAIM_ADMIN, principal.admin())
+				.claim(CLAIM_KIND, kind)
+				.claim(CLAIM_FARMER_ID, principal.farmerId())
+				.issuedAt(new Date(now))
+				.expiration(new Date(now + lifetimeMs))
+				.signWith(key)
+				.compact();
+	}
+
+	private JwtPrincipal parse(String token, String expectedKind) {
+		try {
+			Claims claims = parser.parseSignedClaims(token).getPayload();
+			if (!expectedKind.equals(claims.get(CLAIM_KIND, String.class)))
+				return null;
+			Integer userId = claims.get(CLAIM_USER_ID, Integer.class);
+			Boolean admin = claims.get(CLAIM_ADMIN, Boolean.class);
+			return new JwtPrincipal(userId != null ? userId : 0, claims.getSubject(),
+					claims.get(CLAIM_USER_TYPE, String.class), Boolean.TRUE.equals(admin),
+					claims.get(CLAIM_FARMER_ID, Integer.class));
+		} catch (JwtException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
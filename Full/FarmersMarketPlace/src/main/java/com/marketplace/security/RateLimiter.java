@@ -0,0 +1,139 @@
+package com.marketplace.security;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process token buckets for the login and registration endpoints, keyed by
+ * client IP and by email. The IP is the request's remote address, which
+ * Tomcat's RemoteIpValve (server.forward-headers-strategy=native) takes from
+ * X-Forwarded-For for requests from a trusted proxy only. Buckets live in lock-striped hash maps so unrelated
+ * keys never contend on the same lock; a check is one hash, one short critical
+ * section and no allocation beyond the key string.
+ */
+@Component
+public class RateLimiter {
+
+	private static final int STRIPES = 64;
+
+	private static final class Bucket {
+		double tokens;
+		long lastRefill;
+		long fullRefillNanos;
+	}
+
+	private static final class Stripe {
+		final ReentrantLock lock = new ReentrantLock();
+		final Map<String, Bucket> buckets = new HashMap<>();
+	}
+
+	private record Limit(int capacity, double tokensPerNano) {
+		// a zero rate never refills (and divides by zero), a zero capacity never admits anyone
+		Limit(String name, int capacity, int perMinute) {
+			this(capacity, perMinute / (double) TimeUnit.MINUTES.toNanos(1));
+			if (capacity < 1)
+				throw new IllegalArgumentException("ratelimit." + name + ".capacity must be at least 1, got " + capacity);
+			if (perMinute <= 0)
+				throw new IllegalArgumentException("ratelimit." + name + ".per-minute must be above 0, got " + perMinute);
+		}
+	}
+
+	private final Stripe[] stripes = new Stripe[STRIPES];
+
+	private final Limit loginIp;
+	private final Limit loginEmail;
+	private final Limit registerIp;
+	private final Limit registerEmail;
+
+	public RateLimiter(@Value("${ratelimit.login.ip.capacity:20}") int loginIpCapacity,
+			@Value("${ratelimit.login.ip.per-minute:20}") int loginIpPerMinute,
+			@Value("${ratelimit.login.email.capacity:5}") int loginEmailCapacity,
+			@Value("${ratelimit.login.email.per-minute:5}") int loginEmailPerMinute,
+			@Value("${ratelimit.register.ip.capacity:5}") int registerIpCapacity,
+			@Value("${ratelimit.register.ip.per-minute:5}") int registerIpPerMinute,
+			@Value("${ratelimit.register.email.capacity:3}") int registerEmailCapacity,
+			@Value("${ratelimit.register.email.per-minute:3}") int registerEmailPerMinute) {
+		for (int i = 0; i < STRIPES; i++)
+			stripes[i] = new Stripe();
+		loginIp = new Limit("login.ip", loginIpCapacity, loginIpPerMinute);
+		loginEmail = new Limit("login.email", loginEmailCapacity, loginEmailPerMinute);
+		registerIp = new Limit("register.ip", registerIpCapacity, registerIpPerMinute);
+		registerEmail = new Limit("register.email", registerEmailCapacity, registerEmailPerMinute);
+	}
+
+	/** @return 0 if the attempt may proceed, otherwise seconds until it may be retried */
+	public long acquireLogin(String ip, String email) {
+		long wait = tryAcquire("L:" + ip, loginIp);
+		if (wait == 0 && email != null)
+			wait = tryAcquire("LE:" + email.toLowerCase(), loginEmail);
+		return wait;
+	}
+
+	/** @return 0 if the attempt may proceed, otherwise seconds until it may be retried */
+	public long acquireRegister(String ip, String email) {
+		long wait = tryAcquire("R:" + ip, registerIp);
+		if (wait == 0 && email != null)
+			wait = tryAcquire("RE:" + email.toLowerCase(), registerEmail);
+		return wait;
+	}
+
+	private long tryAcquire(String key, Limit limit) {
+		Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+		long now = System.nanoTime();
+		stripe.lock.lock();
+		try {
+			Bucket b = stripe.buckets.get(key);
+			if (b == null) {
+				b = new Bucket();
+				b.tokens = limit.capacity();
+				b.lastRefill = now;
+				b.fullRefillNanos = (long) (limit.capacity() / limit.tokensPerNano());
+				stripe.buckets.put(key, b);
+			} else {
+				b.tokens = Math.min(limit.capacity(), b.tokens + (now - b.lastRefill) * limit.tokensPerNano());
+				b.lastRefill = now;
+			}
+			if (b.tokens >= 1) {
+				b.tokens -= 1;
+				return 0;
+			}
+			double nanos = (1 - b.tokens) / limit.tokensPerNano();
+			return Math.max(1, (long) Math.ceil(nanos / TimeUnit.SECONDS.toNanos(1)));
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * Drops buckets idle long enough to have refilled completely; a fresh bucket
+	 * starts full, so eviction never changes a caller's allowance.
+	 */
+	@Scheduled(fixedDelayString = "${ratelimit.evict-interval-ms:60000}")
+	public void evictIdle() {
+		long now = System.nanoTime();
+		for (Stripe stripe : stripes) {
+			stripe.lock.lock();
+			try {
+				Iterator<Bucket> it = stripe.buckets.values().iterator();
+				while (it.hasNext()) {
+					Bucket b = it.next();
+					if (now - b.lastRefill >= b.fullRefillNanos)
+						it.remove();
+				}
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+	}
+
+	private static int spread(int h) {
+		return h ^ (h >>> 16);
+	}
+}
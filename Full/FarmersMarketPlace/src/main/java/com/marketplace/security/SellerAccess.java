@@ -0,0 +1,60 @@
+package com.marketplace.security;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rules for the /seller endpoints: an admin may use all of them, a seller only
+ * those of the farmer in its token. The farmer comes from the {farmerId} or
+ * {email} path variable, or for {productId} from the product's row, read by
+ * primary key.
+ */
+@Component
+public class SellerAccess {
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	public AuthorizationManager<RequestAuthorizationContext> ownFarmer() {
+		return (auth, ctx) -> decide(auth, p -> p.farmerId().equals(parse(ctx.getVariables().get("farmerId"))));
+	}
+
+	public AuthorizationManager<RequestAuthorizationContext> ownEmail() {
+		return (auth, ctx) -> decide(auth, p -> p.email() != null && p.email().equalsIgnoreCase(ctx.getVariables().get("email")));
+	}
+
+	public AuthorizationManager<RequestAuthorizationContext> ownProduct() {
+		return (auth, ctx) -> decide(auth, p -> {
+			Integer productId = parse(ctx.getVariables().get("productId"));
+			if (productId == null)
+				return false;
+			List<Integer> owner = jdbc.queryForList("SELECT farmer_id FROM stock_details WHERE product_id = ?",
+					Integer.class, productId);
+			return !owner.isEmpty() && p.farmerId().equals(owner.get(0));
+		});
+	}
+
+	private static AuthorizationDecision decide(Supplier<Authentication> auth, Predicate<JwtPrincipal> owns) {
+		if (!(auth.get().getPrincipal() instanceof JwtPrincipal p))
+			return new AuthorizationDecision(false);
+		return new AuthorizationDecision(
+				p.admin() || ("SELLER".equals(p.userType()) && p.farmerId() != null && owns.test(p)));
+	}
+
+	private static Integer parse(String id) {
+		try {
+			return id == null ? null : Integer.valueOf(id);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
@@ -12,6 +12,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.marketplace.custom_exceptions.ResourceNotFoundException;
 import com.marketplace.dao.IAdminDao;
+import com.marketplace.dao.IOrderArchiveDao;
+import com.marketplace.dto.UserView;
 import com.marketplace.pojos.Category;
 import com.marketplace.pojos.Farmer;
 import com.marketplace.pojos.OrderDetails;
@@ -26,10 +28,19 @@ public class AdminServiceImpl implements IAdminService {
 	
 	@Autowired
 	private IAdminDao a_dao;
+
+	@Autowired
+	private IOrderArchiveDao archiveDao;
+
+	@Autowired
+	private ArchiveService archive;
 	
 	@Autowired
 	private StockDetailsRepository stockRepository;
 
+	@Autowired
+	private RegisteredEmailFilter emailFilter;
+
 	@Override
 	public boolean AddFarmer(Farmer farmer) {
 		return a_dao.AddFarmer(farmer);
@@ -102,17 +113,19 @@ public class AdminServiceImpl implements IAdminService {
 	
 	@Override
 	public List<OrderDetails> getAllOrders() {
-		return a_dao.getAllOrders();
+		List<OrderDetails> live = a_dao.getAllOrders();
+		return archive.withArchived(live, null, () -> archiveDao.getAllOrders(), null);
 	}
 
 	@Override
-	public List<User> getAllUser() {
+	public List<UserView> getAllUser() {
 		// TODO Auto-generated method stub
 		return a_dao.getAllUser();
 	}
 
 	@Override
 	public boolean UpdateUser(User user) {
+		emailFilter.add(user.getEmail());
 		return a_dao.UpdateUser(user);
 	}
 
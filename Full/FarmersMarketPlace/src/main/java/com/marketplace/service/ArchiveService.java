@@ -0,0 +1,181 @@
+package com.marketplace.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.marketplace.dao.IOrderArchiveDao;
+import com.marketplace.pojos.OrderDetails;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves delivered orders placed more than order-age-days ago, with their
+ * lines, from orders/order_details to the archive tables, so the live tables
+ * only hold recent and open orders. Like {@link PurgeService} it runs every
+ * interval-ms on its own thread, batch-size orders per transaction with
+ * pause-ms between batches.
+ * <p>
+ * Order reads load the live lines first and then call
+ * {@link #withArchived}, which only queries the archive when the requested
+ * range starts on or before the newest archived order date. That boundary is
+ * read from orders_archive on every call (an index lookup), so all instances
+ * see a batch as soon as it commits. A batch moves its orders in one
+ * transaction, so an order missing from the live read was archived before the
+ * boundary was read and is found there; lines seen in both places are
+ * returned once.
+ */
+@Component
+public class ArchiveService {
+
+	/** The current run, or the last one when running is false. */
+	public record Status(boolean running, LocalDate placedBefore, long orders, long lines,
+			LocalDate newestArchived) {
+	}
+
+	@Value("${archive.order-age-days:365}")
+	private int orderAgeDays;
+
+	@Value("${archive.interval-ms:3600000}")
+	private long intervalMs;
+
+	@Value("${archive.batch-size:500}")
+	private int batchSize;
+
+	@Value("${archive.pause-ms:50}")
+	private long pauseMs;
+
+	@Autowired
+	private IOrderArchiveDao archiveDao;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private ScheduledExecutorService archiver;
+	private TransactionTemplate readOnly;
+	private TransactionTemplate readWrite;
+	private Counter archivedOrders;
+	private Counter archivedLines;
+	private volatile Status status;
+
+	@PostConstruct
+	public void init() {
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		status = new Status(false, null, 0, 0, readOnly.execute(s -> newestArchived()));
+		archivedOrders = Counter.builder("archive.orders").register(registry);
+		archivedLines = Counter.builder("archive.lines").register(registry);
+
+		archiver = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "archive");
+			t.setDaemon(true);
+			return t;
+		});
+		archiver.scheduleWithFixedDelay(this::archive, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		archiver.shutdownNow();
+	}
+
+	public Status status() {
+		return status;
+	}
+
+	/** Starts a run now instead of at the next interval. */
+	public void trigger() {
+		archiver.execute(this::archive);
+	}
+
+	/** The place date of the newest archived order, null while the archive is empty. Read it after the live rows. */
+	public LocalDate newestArchived() {
+		return archiveDao.getNewestArchivedDate();
+	}
+
+	/** Whether a read of orders placed on or after from (null: all of them) has to look in the archive. */
+	public boolean needsArchive(LocalDate from) {
+		return reaches(newestArchived(), from);
+	}
+
+	/** Whether orders placed on or after from reach back to newest, the archive boundary. */
+	public static boolean reaches(LocalDate newest, LocalDate from) {
+		return newest != null && (from == null || !from.isAfter(newest));
+	}
+
+	/**
+	 * live plus, if the range starting at from reaches into the archive, the
+	 * archived lines, in order when one is given. Call it after loading live.
+	 */
+	public List<OrderDetails> withArchived(List<OrderDetails> live, LocalDate from,
+			Supplier<List<OrderDetails>> archived, Comparator<OrderDetails> order) {
+		if (!needsArchive(from))
+			return live;
+		List<OrderDetails> lines = archived.get();
+		if (lines.isEmpty())
+			return live;
+		List<OrderDetails> all = new ArrayList<>(live.size() + lines.size());
+		Set<Integer> seen = new HashSet<>();
+		for (OrderDetails line : live) {
+			all.add(line);
+			seen.add(line.getId());
+		}
+		for (OrderDetails line : lines)
+			if (seen.add(line.getId()))
+				all.add(line);
+		if (order != null)
+			all.sort(order);
+		return all;
+	}
+
+	private void archive() {
+		LocalDate placedBefore = LocalDate.now().minusDays(orderAgeDays);
+		long start = System.nanoTime();
+		long orders = 0;
+		long lines = 0;
+		status = new Status(true, placedBefore, 0, 0, status.newestArchived());
+		try {
+			while (true) {
+				List<Integer> ids = readOnly.execute(s -> archiveDao.getArchivableOrders(placedBefore, batchSize));
+				if (ids.isEmpty())
+					break;
+				int moved = readWrite.execute(s -> archiveDao.archiveOrders(ids));
+				orders += ids.size();
+				lines += moved;
+				archivedOrders.increment(ids.size());
+				archivedLines.increment(moved);
+				status = new Status(true, placedBefore, orders, lines, readOnly.execute(s -> newestArchived()));
+				Thread.sleep(pauseMs);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException e) {
+			// retried on the next run
+			System.out.println("archive failed: " + e);
+		}
+		status = new Status(false, placedBefore, orders, lines, status.newestArchived());
+		if (orders > 0)
+			System.out.println("archived " + orders + " orders (" + lines + " lines) placed before " + placedBefore
+					+ " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+	}
+}
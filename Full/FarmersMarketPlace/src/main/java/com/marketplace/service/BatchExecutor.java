@@ -0,0 +1,186 @@
+package com.marketplace.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.firewall.RequestRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Runs the GET sub-requests of a /batch call in parallel on a bounded pool.
+ * Each one is dispatched in-process through the security filter chain and
+ * the DispatcherServlet with the caller's credentials, so it is authorised
+ * and handled as when the client calls it directly, without holding a second
+ * container thread or connection; the client saves the round trips. A
+ * sub-request that cannot be queued or does not finish within timeout-ms gets
+ * status 503 or 504, the others are unaffected.
+ */
+@Component
+public class BatchExecutor {
+
+	/** One sub-request: a client-chosen id and a GET path relative to the context path. */
+	public record Item(String id, String path) {
+	}
+
+	/** The outcome of one sub-request: JSON bodies are embedded as JSON, anything else as text. */
+	public record Result(String id, int status, JsonNode body) {
+	}
+
+	@Value("${batch.threads:8}")
+	private int threads;
+
+	@Value("${batch.queue-capacity:64}")
+	private int queueCapacity;
+
+	@Value("${batch.timeout-ms:10000}")
+	private long timeoutMs;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	@Qualifier("springSecurityFilterChain")
+	private Filter securityFilters;
+
+	@Autowired
+	private DispatcherServlet dispatcher;
+
+	private ThreadPoolExecutor executor;
+	private Timer itemTimer;
+
+	@PostConstruct
+	public void init() {
+		AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), r -> {
+					Thread t = new Thread(r, "batch-" + count.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}, new ThreadPoolExecutor.AbortPolicy());
+		itemTimer = Timer.builder("batch.item.latency").register(registry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Dispatches every item with the Authorization and Cookie headers of batch
+	 * and returns the results in item order. The items' paths must be valid
+	 * URIs; one that is not gets status 400.
+	 */
+	public List<Result> execute(HttpServletRequest batch, HttpServletResponse response, List<Item> items) {
+		List<Future<Result>> futures = new ArrayList<>(items.size());
+		for (Item item : items) {
+			BatchItemRequest request;
+			try {
+				// copies what it needs from batch here, on the request thread
+				request = new BatchItemRequest(batch, item.path());
+			} catch (IllegalArgumentException e) {
+				count("4xx");
+				futures.add(CompletableFuture.completedFuture(error(item, 400, "Invalid path")));
+				continue;
+			}
+			try {
+				futures.add(executor.submit(() -> dispatch(item, request, new BatchItemResponse(response))));
+			} catch (RejectedExecutionException e) {
+				count("rejected");
+				futures.add(CompletableFuture.completedFuture(error(item, 503, "Batch executor is busy")));
+			}
+		}
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+		List<Result> results = new ArrayList<>(items.size());
+		for (int i = 0; i < items.size(); i++)
+			results.add(await(items.get(i), futures.get(i), deadline));
+		return results;
+	}
+
+	private Result await(Item item, Future<Result> future, long deadline) {
+		try {
+			return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			count("timeout");
+			return error(item, 504, "Timed out after " + timeoutMs + " ms");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			return error(item, 503, "Interrupted");
+		} catch (ExecutionException e) {
+			return error(item, 500, "Internal error");
+		}
+	}
+
+	private Result dispatch(Item item, BatchItemRequest request, BatchItemResponse response) {
+		long start = System.nanoTime();
+		try {
+			securityFilters.doFilter(request, response, (req, res) -> dispatcher.service(req, res));
+			count(response.getStatus() / 100 + "xx");
+			return new Result(item.id(), response.getStatus(), body(response));
+		} catch (RequestRejectedException | IllegalArgumentException e) {
+			count("4xx");
+			return error(item, 400, "Invalid path");
+		} catch (ServletException | IOException | RuntimeException e) {
+			// what the container would turn into a 500 error page
+			count("5xx");
+			return error(item, 500, "Internal error");
+		} finally {
+			itemTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void count(String outcome) {
+		Counter.builder("batch.items").tag("outcome", outcome).register(registry).increment();
+	}
+
+	private JsonNode body(BatchItemResponse response) {
+		byte[] bytes = response.body();
+		if (bytes.length == 0)
+			return null;
+		String type = response.getContentType();
+		if (type != null && type.contains("json")) {
+			try {
+				return mapper.readTree(bytes);
+			} catch (IOException e) {
+				// fall through: returned as text
+			}
+		}
+		return TextNode.valueOf(new String(bytes, response.charset()));
+	}
+
+	private static Result error(Item item, int status, String message) {
+		return new Result(item.id(), status, TextNode.valueOf(message));
+	}
+}
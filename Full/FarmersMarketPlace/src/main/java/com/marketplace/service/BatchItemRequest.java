@@ -0,0 +1,283 @@
+package com.marketplace.service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * A GET sub-request of a /batch call, dispatched in-process. Everything it
+ * reads from the /batch request (headers, cookies, locale, addresses) is copied
+ * in the constructor on the request thread, so the batch threads never touch
+ * the container's request object; attributes are its own, so filters that
+ * mark a request as done see each sub-request as new.
+ */
+class BatchItemRequest extends HttpServletRequestWrapper {
+
+	private static final ServletInputStream EMPTY = new ServletInputStream() {
+		@Override
+		public int read() {
+			return -1;
+		}
+
+		@Override
+		public boolean isFinished() {
+			return true;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener listener) {
+		}
+	};
+
+	private final String contextPath;
+	private final String requestUri;
+	private final String servletPath;
+	private final String queryString;
+	private final StringBuffer requestUrl;
+	private final Map<String, String[]> parameters;
+	private final Map<String, String> headers = new LinkedCaseInsensitiveMap<>();
+	private final Cookie[] cookies;
+	private final Locale locale;
+	private final List<Locale> locales;
+	private final String remoteAddr;
+	private final Map<String, Object> attributes = new HashMap<>();
+
+	/** path is relative to the context path; throws IllegalArgumentException if it is not a valid URI. */
+	BatchItemRequest(HttpServletRequest batch, String path) {
+		super(batch);
+		URI uri = URI.create(path);
+		contextPath = batch.getContextPath();
+		requestUri = contextPath + uri.getRawPath();
+		servletPath = uri.getPath();
+		queryString = uri.getRawQuery();
+		requestUrl = new StringBuffer(batch.getScheme()).append("://").append(batch.getServerName()).append(':')
+				.append(batch.getServerPort()).append(requestUri);
+		parameters = parse(queryString);
+		for (String name : List.of(HttpHeaders.AUTHORIZATION, HttpHeaders.COOKIE)) {
+			String value = batch.getHeader(name);
+			if (value != null)
+				headers.put(name, value);
+		}
+		headers.put(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+		cookies = batch.getCookies();
+		locale = batch.getLocale();
+		locales = Collections.list(batch.getLocales());
+		remoteAddr = batch.getRemoteAddr();
+	}
+
+	private static Map<String, String[]> parse(String query) {
+		Map<String, List<String>> values = new LinkedHashMap<>();
+		if (query != null) {
+			for (String pair : query.split("&")) {
+				if (pair.isEmpty())
+					continue;
+				int eq = pair.indexOf('=');
+				String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+				String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+				values.computeIfAbsent(name, n -> new ArrayList<>()).add(value);
+			}
+		}
+		Map<String, String[]> parameters = new LinkedHashMap<>();
+		values.forEach((name, list) -> parameters.put(name, list.toArray(new String[0])));
+		return Collections.unmodifiableMap(parameters);
+	}
+
+	@Override
+	public String getMethod() {
+		return "GET";
+	}
+
+	@Override
+	public DispatcherType getDispatcherType() {
+		return DispatcherType.REQUEST;
+	}
+
+	@Override
+	public String getContextPath() {
+		return contextPath;
+	}
+
+	@Override
+	public String getRequestURI() {
+		return requestUri;
+	}
+
+	@Override
+	public StringBuffer getRequestURL() {
+		return new StringBuffer(requestUrl);
+	}
+
+	@Override
+	public String getServletPath() {
+		return servletPath;
+	}
+
+	@Override
+	public String getPathInfo() {
+		return null;
+	}
+
+	@Override
+	public String getQueryString() {
+		return queryString;
+	}
+
+	@Override
+	public String getParameter(String name) {
+		String[] values = parameters.get(name);
+		return values == null ? null : values[0];
+	}
+
+	@Override
+	public Map<String, String[]> getParameterMap() {
+		return parameters;
+	}
+
+	@Override
+	public Enumeration<String> getParameterNames() {
+		return Collections.enumeration(parameters.keySet());
+	}
+
+	@Override
+	public String[] getParameterValues(String name) {
+		return parameters.get(name);
+	}
+
+	@Override
+	public String getHeader(String name) {
+		return headers.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getHeaders(String name) {
+		String value = headers.get(name);
+		return Collections.enumeration(value == null ? List.of() : List.of(value));
+	}
+
+	@Override
+	public Enumeration<String> getHeaderNames() {
+		return Collections.enumeration(headers.keySet());
+	}
+
+	@Override
+	public int getIntHeader(String name) {
+		String value = headers.get(name);
+		return value == null ? -1 : Integer.parseInt(value);
+	}
+
+	@Override
+	public long getDateHeader(String name) {
+		// none of the copied headers is a date
+		return -1;
+	}
+
+	@Override
+	public Cookie[] getCookies() {
+		return cookies;
+	}
+
+	@Override
+	public Locale getLocale() {
+		return locale;
+	}
+
+	@Override
+	public Enumeration<Locale> getLocales() {
+		return Collections.enumeration(locales);
+	}
+
+	@Override
+	public String getRemoteAddr() {
+		return remoteAddr;
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return StandardCharsets.UTF_8.name();
+	}
+
+	@Override
+	public void setCharacterEncoding(String encoding) {
+		// no body to decode; must not change the /batch request
+	}
+
+	@Override
+	public String getContentType() {
+		return null;
+	}
+
+	@Override
+	public int getContentLength() {
+		return -1;
+	}
+
+	@Override
+	public long getContentLengthLong() {
+		return -1;
+	}
+
+	@Override
+	public ServletInputStream getInputStream() {
+		return EMPTY;
+	}
+
+	@Override
+	public BufferedReader getReader() {
+		return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(new byte[0]), StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public boolean isAsyncSupported() {
+		return false;
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		if (value == null)
+			attributes.remove(name);
+		else
+			attributes.put(name, value);
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		attributes.remove(name);
+	}
+}
@@ -0,0 +1,286 @@
+package com.marketplace.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Collects the status, headers and body of a /batch sub-request in memory.
+ * Nothing reaches the /batch response it wraps: errors and redirects only set
+ * the status, and cookies are dropped.
+ */
+class BatchItemResponse extends HttpServletResponseWrapper {
+
+	private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+	private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+	private int status = SC_OK;
+	private String errorMessage;
+	private String contentType;
+	private String characterEncoding;
+	private Locale locale = Locale.getDefault();
+	private boolean committed;
+	private ServletOutputStream outputStream;
+	private PrintWriter writer;
+
+	BatchItemResponse(HttpServletResponse batch) {
+		super(batch);
+	}
+
+	/** The body as written, or the sendError message if there is none. */
+	byte[] body() {
+		if (writer != null)
+			writer.flush();
+		if (body.size() == 0 && errorMessage != null)
+			return errorMessage.getBytes(StandardCharsets.UTF_8);
+		return body.toByteArray();
+	}
+
+	Charset charset() {
+		return characterEncoding == null ? StandardCharsets.UTF_8 : Charset.forName(characterEncoding);
+	}
+
+	@Override
+	public int getStatus() {
+		return status;
+	}
+
+	@Override
+	public void setStatus(int sc) {
+		if (!committed)
+			status = sc;
+	}
+
+	@Override
+	public void sendError(int sc) {
+		sendError(sc, null);
+	}
+
+	@Override
+	public void sendError(int sc, String msg) {
+		if (committed)
+			throw new IllegalStateException("Response already committed");
+		status = sc;
+		errorMessage = msg;
+		committed = true;
+	}
+
+	@Override
+	public void sendRedirect(String location) {
+		if (committed)
+			throw new IllegalStateException("Response already committed");
+		status = SC_FOUND;
+		setHeader(HttpHeaders.LOCATION, location);
+		committed = true;
+	}
+
+	@Override
+	public boolean containsHeader(String name) {
+		return headers.containsKey(name);
+	}
+
+	@Override
+	public String getHeader(String name) {
+		List<String> values = headers.get(name);
+		return values == null || values.isEmpty() ? null : values.get(0);
+	}
+
+	@Override
+	public Collection<String> getHeaders(String name) {
+		List<String> values = headers.get(name);
+		return values == null ? List.of() : new ArrayList<>(values);
+	}
+
+	@Override
+	public Collection<String> getHeaderNames() {
+		return new ArrayList<>(headers.keySet());
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		if (!special(name, value))
+			headers.put(name, new ArrayList<>(List.of(value)));
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		if (!special(name, value))
+			headers.computeIfAbsent(name, n -> new ArrayList<>()).add(value);
+	}
+
+	@Override
+	public void setIntHeader(String name, int value) {
+		setHeader(name, Integer.toString(value));
+	}
+
+	@Override
+	public void addIntHeader(String name, int value) {
+		addHeader(name, Integer.toString(value));
+	}
+
+	@Override
+	public void setDateHeader(String name, long date) {
+		setHeader(name, formatDate(date));
+	}
+
+	@Override
+	public void addDateHeader(String name, long date) {
+		addHeader(name, formatDate(date));
+	}
+
+	private static String formatDate(long date) {
+		return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(date).atOffset(ZoneOffset.UTC));
+	}
+
+	/** Content-Type and Content-Length are properties of the response, as in the container. */
+	private boolean special(String name, String value) {
+		if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+			setContentType(value);
+			return true;
+		}
+		return HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+	}
+
+	@Override
+	public String getContentType() {
+		return contentType;
+	}
+
+	@Override
+	public void setContentType(String type) {
+		contentType = type;
+		if (type != null) {
+			int charset = type.toLowerCase(Locale.ROOT).indexOf("charset=");
+			if (charset >= 0)
+				characterEncoding = type.substring(charset + "charset=".length()).trim();
+		}
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return charset().name();
+	}
+
+	@Override
+	public void setCharacterEncoding(String charset) {
+		if (writer == null)
+			characterEncoding = charset;
+	}
+
+	@Override
+	public void setContentLength(int len) {
+	}
+
+	@Override
+	public void setContentLengthLong(long len) {
+	}
+
+	@Override
+	public Locale getLocale() {
+		return locale;
+	}
+
+	@Override
+	public void setLocale(Locale loc) {
+		locale = loc;
+	}
+
+	@Override
+	public void addCookie(Cookie cookie) {
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() {
+		if (writer != null)
+			throw new IllegalStateException("getWriter() has already been called");
+		if (outputStream == null) {
+			outputStream = new ServletOutputStream() {
+				@Override
+				public void write(int b) {
+					body.write(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					body.write(b, off, len);
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setWriteListener(WriteListener listener) {
+				}
+			};
+		}
+		return outputStream;
+	}
+
+	@Override
+	public PrintWriter getWriter() {
+		if (outputStream != null)
+			throw new IllegalStateException("getOutputStream() has already been called");
+		if (writer == null)
+			writer = new PrintWriter(new OutputStreamWriter(body, charset()));
+		return writer;
+	}
+
+	@Override
+	public void flushBuffer() {
+		if (writer != null)
+			writer.flush();
+		committed = true;
+	}
+
+	@Override
+	public boolean isCommitted() {
+		return committed;
+	}
+
+	@Override
+	public void reset() {
+		resetBuffer();
+		headers.clear();
+		status = SC_OK;
+		contentType = null;
+		characterEncoding = null;
+	}
+
+	@Override
+	public void resetBuffer() {
+		if (committed)
+			throw new IllegalStateException("Response already committed");
+		if (writer != null)
+			writer.flush();
+		body.reset();
+	}
+
+	@Override
+	public int getBufferSize() {
+		return body.size();
+	}
+
+	@Override
+	public void setBufferSize(int size) {
+	}
+}
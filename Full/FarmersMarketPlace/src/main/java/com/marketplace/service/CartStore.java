@@ -0,0 +1,110 @@
+package com.marketplace.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.marketplace.dao.ICartDao;
+import com.marketplace.pojos.Cart;
+import com.marketplace.pojos.CartItem;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The shopping carts of logged-in buyers, one per user id of the JWT
+ * principal, stored in the database so any instance can serve any request.
+ * Every change locks the buyer's cart row first, so concurrent requests of one
+ * buyer, on whichever instances, apply one at a time and never see a
+ * half-updated cart; a cart untouched for idle-minutes is dropped.
+ */
+@Component
+public class CartStore {
+
+	@Value("${cart.idle-minutes:120}")
+	private long idleMinutes;
+
+	@Autowired
+	private ICartDao cartDao;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate readWrite;
+
+	@PostConstruct
+	public void init() {
+		readWrite = new TransactionTemplate(transactionManager);
+	}
+
+	public List<CartItem> items(int userId) {
+		return readWrite.execute(s -> {
+			cartDao.touchCart(userId);
+			return cartDao.getItems(userId);
+		});
+	}
+
+	public List<CartItem> add(int userId, CartItem item) {
+		return readWrite.execute(s -> {
+			lock(userId);
+			cartDao.insertItem(userId, item);
+			return cartDao.getItems(userId);
+		});
+	}
+
+	/** Removes the item at index; throws IllegalArgumentException if there is none. */
+	public List<CartItem> remove(int userId, int index) {
+		return readWrite.execute(s -> {
+			if (cartDao.touchCart(userId) == 0)
+				throw new IllegalArgumentException("No item " + index + " in the cart");
+			List<Integer> ids = cartDao.getItemIds(userId);
+			if (index < 0 || index >= ids.size())
+				throw new IllegalArgumentException("No item " + index + " in the cart");
+			cartDao.deleteItem(ids.get(index));
+			return cartDao.getItems(userId);
+		});
+	}
+
+	/**
+	 * Passes the cart with its grand total to place and empties it, in one
+	 * transaction: if place fails the cart is kept, and a second checkout of the
+	 * same cart finds it empty. Returns the cart; place is not called for an
+	 * empty one.
+	 */
+	public Cart placeOrder(int userId, Consumer<Cart> place) {
+		return readWrite.execute(s -> {
+			Cart cart = new Cart();
+			List<CartItem> items = cartDao.touchCart(userId) == 0 ? List.of() : cartDao.getItems(userId);
+			cart.setItems(items);
+			cart.calculateTotal(items);
+			if (!items.isEmpty()) {
+				place.accept(cart);
+				cartDao.deleteCart(userId);
+			}
+			return cart;
+		});
+	}
+
+	/** Creates the cart row if needed; either way it stays locked until the transaction ends. */
+	private void lock(int userId) {
+		if (cartDao.touchCart(userId) > 0)
+			return;
+		try {
+			cartDao.insertCart(userId);
+		} catch (DuplicateKeyException e) {
+			// created meanwhile by another request of this buyer
+			cartDao.touchCart(userId);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${cart.evict-interval-ms:60000}")
+	public void evictIdle() {
+		readWrite.execute(s -> cartDao.deleteIdleCarts(idleMinutes));
+	}
+}
@@ -0,0 +1,233 @@
+package com.marketplace.service;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import com.marketplace.custom_exceptions.CatalogUnavailableException;
+import com.marketplace.custom_exceptions.CoalescedReadTimeoutException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.NoResultException;
+import jakarta.persistence.PersistenceException;
+
+/**
+ * Stale-while-revalidate for the storefront reads. Each read runs on a small
+ * pool behind a {@link CircuitBreaker}; the caller waits at most timeout-ms.
+ * Every successful result is remembered per key (also when it arrives after
+ * the caller gave up), and when the breaker is open, the read times out or
+ * the database fails, the last good result for that key is returned instead
+ * together with its age. With no result to fall back on the caller gets a
+ * 503.
+ * <p>
+ * While the breaker is open no request reaches the database; every
+ * probe-interval-ms the most recent read is retried in the background and a
+ * fast success closes the breaker again. Errors that are not database
+ * failures (unknown ids and the like) are passed through unchanged.
+ */
+@Component
+public class CatalogFallback {
+
+	/** A response body and how old it is; ageSeconds is -1 for a fresh read. */
+	public record Served<T>(T body, long ageSeconds) {
+		public boolean stale() {
+			return ageSeconds >= 0;
+		}
+	}
+
+	private record Entry(Object body, long storedAt) {
+	}
+
+	@Value("${catalog.breaker.window:20}")
+	private int window;
+
+	@Value("${catalog.breaker.min-calls:10}")
+	private int minCalls;
+
+	@Value("${catalog.breaker.failure-rate-percent:50}")
+	private int failureRatePercent;
+
+	@Value("${catalog.breaker.slow-call-ms:1000}")
+	private long slowCallMs;
+
+	@Value("${catalog.breaker.timeout-ms:2000}")
+	private long timeoutMs;
+
+	@Value("${catalog.breaker.probe-interval-ms:5000}")
+	private long probeIntervalMs;
+
+	@Value("${catalog.breaker.threads:8}")
+	private int threads;
+
+	@Value("${catalog.stale.max-entries:10000}")
+	private int maxEntries;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private CircuitBreaker breaker;
+	private ThreadPoolExecutor executor;
+	private ScheduledExecutorService prober;
+	private Map<String, Entry> lastGood;
+	private final AtomicReference<Probe> lastRead = new AtomicReference<>();
+
+	private record Probe(String key, Supplier<?> load) {
+	}
+
+	@PostConstruct
+	public void init() {
+		breaker = new CircuitBreaker(window, minCalls, failureRatePercent, TimeUnit.MILLISECONDS.toNanos(slowCallMs));
+		lastGood = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(256, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxEntries;
+			}
+		});
+
+		AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(threads * 8), r -> {
+					Thread t = new Thread(r, "catalog-read-" + count.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}, new ThreadPoolExecutor.AbortPolicy());
+		prober = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "catalog-probe");
+			t.setDaemon(true);
+			return t;
+		});
+		prober.scheduleWithFixedDelay(this::probe, probeIntervalMs, probeIntervalMs, TimeUnit.MILLISECONDS);
+
+		Gauge.builder("catalog.breaker.open", breaker, b -> b.state() == CircuitBreaker.State.OPEN ? 1 : 0)
+				.register(registry);
+		Gauge.builder("catalog.stale.entries", lastGood, Map::size).register(registry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		prober.shutdownNow();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Reads key through the breaker. name tags the catalog.* meters, so it
+	 * must come from a small fixed set; key identifies the response (name plus
+	 * path variables).
+	 */
+	public <T> Served<T> read(String name, String key, Supplier<T> load) {
+		if (!breaker.allowRequest())
+			return fallback(name, key, "circuit open");
+
+		lastRead.set(new Probe(key, load));
+		long start = System.nanoTime();
+		CompletableFuture<T> future;
+		try {
+			future = CompletableFuture.supplyAsync(() -> remember(key, load.get()), executor);
+		} catch (RejectedExecutionException e) {
+			breaker.recordFailure();
+			return fallback(name, key, "read queue full");
+		}
+		try {
+			T body = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+			breaker.recordSuccess(System.nanoTime() - start);
+			return new Served<>(body, -1);
+		} catch (TimeoutException e) {
+			breaker.recordFailure();
+			return fallback(name, key, "read timed out");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return fallback(name, key, "interrupted");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (!isDatabaseFailure(cause)) {
+				breaker.recordSuccess(System.nanoTime() - start);
+				if (cause instanceof RuntimeException re)
+					throw re;
+				if (cause instanceof Error err)
+					throw err;
+				throw new IllegalStateException(cause);
+			}
+			breaker.recordFailure();
+			return fallback(name, key, cause.getClass().getSimpleName());
+		}
+	}
+
+	private <T> T remember(String key, T body) {
+		lastGood.put(key, new Entry(body, System.nanoTime()));
+		return body;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> Served<T> fallback(String name, String key, String reason) {
+		Entry entry = lastGood.get(key);
+		if (entry == null) {
+			Counter.builder("catalog.unavailable").tag("name", name).register(registry).increment();
+			throw new CatalogUnavailableException("Catalogue temporarily unavailable (" + reason + ")");
+		}
+		Counter.builder("catalog.stale.served").tag("name", name).register(registry).increment();
+		long age = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - entry.storedAt());
+		return new Served<>((T) entry.body(), age);
+	}
+
+	private void probe() {
+		Probe probe = lastRead.get();
+		if (breaker.state() != CircuitBreaker.State.OPEN || probe == null)
+			return;
+		long start = System.nanoTime();
+		try {
+			CompletableFuture.supplyAsync(() -> remember(probe.key(), probe.load().get()), executor)
+					.get(timeoutMs, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			if (isDatabaseFailure(e.getCause())) {
+				System.out.println("catalogue probe failed: " + e.getCause());
+				return;
+			}
+		} catch (Exception e) {
+			System.out.println("catalogue probe failed: " + e);
+			return;
+		}
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		if (elapsedMs > slowCallMs) {
+			System.out.println("catalogue probe slow: " + elapsedMs + " ms");
+			return;
+		}
+		long openMs = TimeUnit.NANOSECONDS.toMillis(start - breaker.openedAt());
+		breaker.close();
+		System.out.println("catalogue circuit closed after " + openMs + " ms");
+	}
+
+	private static boolean isDatabaseFailure(Throwable e) {
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof NoResultException || t instanceof EmptyResultDataAccessException)
+				return false;
+			if (t instanceof SQLException || t instanceof DataAccessException || t instanceof TransactionException
+					|| t instanceof PersistenceException || t instanceof CoalescedReadTimeoutException)
+				return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,78 @@
+package com.marketplace.service;
+
+/**
+ * Count-based circuit breaker. The outcome of the last window calls is kept;
+ * once at least minCalls are recorded and failures (errors, or calls slower
+ * than slowCallNanos) reach failureRatePercent, the breaker opens and
+ * allowRequest() is false until close() is called by whoever probes for
+ * recovery.
+ */
+public class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN
+	}
+
+	private final boolean[] failed;
+	private final int minCalls;
+	private final int failureRatePercent;
+	private final long slowCallNanos;
+
+	private int next;
+	private int recorded;
+	private int failures;
+	private State state = State.CLOSED;
+	private long openedAt;
+
+	public CircuitBreaker(int window, int minCalls, int failureRatePercent, long slowCallNanos) {
+		this.failed = new boolean[window];
+		this.minCalls = Math.min(minCalls, window);
+		this.failureRatePercent = failureRatePercent;
+		this.slowCallNanos = slowCallNanos;
+	}
+
+	public synchronized boolean allowRequest() {
+		return state == State.CLOSED;
+	}
+
+	/** A completed call; counts as a failure if it took longer than the slow-call threshold. */
+	public synchronized void recordSuccess(long elapsedNanos) {
+		record(elapsedNanos > slowCallNanos);
+	}
+
+	public synchronized void recordFailure() {
+		record(true);
+	}
+
+	public synchronized void close() {
+		state = State.CLOSED;
+		next = recorded = failures = 0;
+		java.util.Arrays.fill(failed, false);
+	}
+
+	public synchronized State state() {
+		return state;
+	}
+
+	/** When the breaker last opened (System.nanoTime()), 0 if it never has. */
+	public synchronized long openedAt() {
+		return openedAt;
+	}
+
+	private void record(boolean failure) {
+		if (state == State.OPEN)
+			return;
+		if (recorded == failed.length && failed[next])
+			failures--;
+		failed[next] = failure;
+		if (failure)
+			failures++;
+		next = (next + 1) % failed.length;
+		if (recorded < failed.length)
+			recorded++;
+		if (recorded >= minCalls && failures * 100 >= failureRatePercent * recorded) {
+			state = State.OPEN;
+			openedAt = System.nanoTime();
+		}
+	}
+}
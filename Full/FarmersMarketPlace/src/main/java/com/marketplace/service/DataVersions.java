@@ -0,0 +1,148 @@
+package com.marketplace.service;
+
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.marketplace.pojos.Category;
+import com.marketplace.pojos.Farmer;
+import com.marketplace.pojos.StockDetails;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Per-entity change counters for conditional GETs, kept in the data_versions
+ * table so all instances hand out the same ETag for the same data. Every
+ * insert, update or delete of a listed entity made through JPA raises the
+ * counter of its class just before its transaction commits, in the same
+ * transaction, so a listing's ETag can be derived from the counters of the
+ * entities it shows with one primary key read instead of its query.
+ * <p>
+ * Read the ETag before loading the data it describes; a change committed in
+ * between then only causes one extra full response. Changes made outside JPA
+ * (bulk JPQL, JDBC) must report themselves through {@link #changed(Class)};
+ * SQL run directly in the database is not seen.
+ */
+@Component
+public class DataVersions implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	// the entities listings show, one data_versions row each
+	private static final Set<Class<?>> LISTED = Set.of(StockDetails.class, Category.class, Farmer.class);
+	private static final String EPOCH = "epoch";
+	private static final String BUMP = "UPDATE data_versions SET version = version + 1 WHERE entity = ?";
+
+	// the entities changed so far in each session's current transaction
+	private final Map<EventSource, Set<String>> pending = new ConcurrentHashMap<>();
+
+	@Autowired
+	private transient EntityManagerFactory emf;
+
+	@Autowired
+	private transient JdbcTemplate jdbc;
+
+	@PostConstruct
+	public void init() {
+		EventListenerRegistry listeners = emf.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+				.getService(EventListenerRegistry.class);
+		listeners.appendListeners(EventType.POST_INSERT, this);
+		listeners.appendListeners(EventType.POST_UPDATE, this);
+		listeners.appendListeners(EventType.POST_DELETE, this);
+	}
+
+	/**
+	 * ETag covering every row of the given entity classes. It is weak: one tag
+	 * stands for the JSON, CBOR and Smile encodings, gzipped or not, and Tomcat
+	 * will not compress a response that carries a strong one.
+	 */
+	public String etag(Class<?>... entities) {
+		StringBuilder in = new StringBuilder("?");
+		Object[] names = new Object[entities.length + 1];
+		names[0] = EPOCH;
+		for (int i = 0; i < entities.length; i++) {
+			names[i + 1] = name(entities[i]);
+			in.append(", ?");
+		}
+		long[] epochAndSum = new long[2];
+		jdbc.query("SELECT entity, version FROM data_versions WHERE entity IN (" + in + ")", rs -> {
+			epochAndSum[EPOCH.equals(rs.getString(1)) ? 0 : 1] += rs.getLong(2);
+		}, names);
+		return "W/\"" + Long.toString(epochAndSum[0], 36) + "-" + epochAndSum[1] + "\"";
+	}
+
+	/**
+	 * For writes that bypass JPA (JDBC batches, bulk JPQL): call it inside
+	 * their transaction, or right after its commit.
+	 */
+	public void changed(Class<?> entity) {
+		jdbc.update(BUMP, name(entity));
+	}
+
+	private static String name(Class<?> entity) {
+		if (!LISTED.contains(entity))
+			throw new IllegalArgumentException("No data version for " + entity.getSimpleName());
+		return entity.getSimpleName();
+	}
+
+	private void changed(EventSource session, EntityPersister persister) {
+		Class<?> entity = persister.getMappedClass();
+		if (!LISTED.contains(entity))
+			return;
+		Set<String> changed = pending.computeIfAbsent(session, s -> {
+			// sorted: transactions that change the same entities lock their rows in the same order
+			Set<String> names = new TreeSet<>();
+			s.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) tx -> tx.doWork(connection -> {
+				try (PreparedStatement bump = connection.prepareStatement(BUMP)) {
+					for (String name : names) {
+						bump.setString(1, name);
+						bump.executeUpdate();
+					}
+				}
+			}));
+			s.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, tx) -> pending.remove(s));
+			return names;
+		});
+		changed.add(entity.getSimpleName());
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		changed(event.getSession(), event.getPersister());
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		changed(event.getSession(), event.getPersister());
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		changed(event.getSession(), event.getPersister());
+	}
+
+	@Override
+	public boolean requiresPostCommitHandling(EntityPersister persister) {
+		return false;
+	}
+}
@@ -0,0 +1,239 @@
+package com.marketplace.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.pojos.Category;
+import com.marketplace.pojos.Farmer;
+import com.marketplace.pojos.StockDetails;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Each farmer's product listing (/farmer/products/{id}) as gzipped JSON,
+ * ready to be written to the response without a query or Jackson. Entries are
+ * dropped after the commit of any change to that farmer or its stock, and all
+ * of them when a category changes (its name is part of every listing). The
+ * cache is LRU, bounded by the total size of the stored bytes.
+ * <p>
+ * A listing is only stored if its farmer was not invalidated while it was
+ * being read, so a load that raced with a commit cannot put old data back.
+ * Changes made outside JPA must call {@link #invalidate(int)} themselves.
+ * <p>
+ * Invalidations are numbered by one global epoch. Only the last
+ * max-invalidations farmers that were invalidated keep their own number;
+ * dropping the oldest raises a floor that stands in for all dropped ones, so
+ * reads of unknown or long unchanged farmers add no entries.
+ */
+@Component
+public class FarmerPageCache implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+		PostCommitDeleteEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	@Value("${catalog.page-cache.max-bytes:33554432}")
+	private long maxBytes;
+
+	@Value("${catalog.page-cache.max-invalidations:10000}")
+	private int maxInvalidations;
+
+	@Autowired
+	private transient EntityManagerFactory emf;
+
+	@Autowired
+	private transient ObjectMapper mapper;
+
+	@Autowired
+	private transient MeterRegistry registry;
+
+	private final LinkedHashMap<Integer, byte[]> pages = new LinkedHashMap<>(256, 0.75f, true);
+	// farmer id -> epoch of its last invalidation, oldest first
+	private final LinkedHashMap<Integer, Long> invalidated = new LinkedHashMap<>();
+	private long epoch;
+	// at least the epoch of every invalidation no longer in invalidated
+	private long floor;
+	private long totalBytes;
+
+	private transient Counter hits;
+	private transient Counter misses;
+	private transient Counter evictions;
+
+	@PostConstruct
+	public void init() {
+		EventListenerRegistry listeners = emf.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+				.getService(EventListenerRegistry.class);
+		listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+		listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+		listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+		hits = Counter.builder("catalog.page.cache").tag("result", "hit").register(registry);
+		misses = Counter.builder("catalog.page.cache").tag("result", "miss").register(registry);
+		evictions = Counter.builder("catalog.page.cache.evictions").register(registry);
+		Gauge.builder("catalog.page.cache.bytes", this, c -> c.bytes()).register(registry);
+	}
+
+	/** The gzipped listing of farmerId, or null. */
+	public synchronized byte[] get(int farmerId) {
+		byte[] page = pages.get(farmerId);
+		(page == null ? misses : hits).increment();
+		return page;
+	}
+
+	/**
+	 * Take this before reading a listing and hand it to {@link #put}. The read
+	 * must not reuse a load started before it was taken, or put would store
+	 * that load's older data under the current generation. It never decreases
+	 * and changes with every invalidation of farmerId (and sometimes without).
+	 */
+	public synchronized long generation(int farmerId) {
+		Long last = invalidated.get(farmerId);
+		return last == null ? floor : Math.max(floor, last);
+	}
+
+	/**
+	 * Serialises and gzips body and stores it for farmerId unless the farmer
+	 * was invalidated since generation was taken, the page alone exceeds the
+	 * limit or the listing is empty (no products, or no such farmer: anyone
+	 * can ask for any id). Returns the gzipped bytes either way.
+	 */
+	public byte[] put(int farmerId, long generation, Object body) {
+		byte[] page = gzip(body);
+		if (body instanceof Collection<?> listing && listing.isEmpty())
+			return page;
+		synchronized (this) {
+			if (generation != generation(farmerId) || page.length > maxBytes)
+				return page;
+			byte[] old = pages.put(farmerId, page);
+			totalBytes += page.length - (old == null ? 0 : old.length);
+			Iterator<byte[]> eldest = pages.values().iterator();
+			while (totalBytes > maxBytes && eldest.hasNext()) {
+				totalBytes -= eldest.next().length;
+				eldest.remove();
+				evictions.increment();
+			}
+		}
+		return page;
+	}
+
+	private byte[] gzip(Object body) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+		try (GZIPOutputStream zip = new GZIPOutputStream(out, 8192)) {
+			mapper.writeValue(zip, body);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/** For clients that do not accept gzip: still no query and no Jackson. */
+	public static byte[] gunzip(byte[] page) {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(page))) {
+			return in.readAllBytes();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private synchronized long bytes() {
+		return totalBytes;
+	}
+
+	private void invalidate(Farmer farmer) {
+		if (farmer != null && farmer.getFarmerId() != null)
+			invalidate(farmer.getFarmerId());
+	}
+
+	/** For stock writes that bypass JPA (JDBC batches, bulk JPQL): call after their commit. */
+	public synchronized void invalidate(int farmerId) {
+		// re-inserted so the map stays in epoch order
+		invalidated.remove(farmerId);
+		invalidated.put(farmerId, ++epoch);
+		Iterator<Long> oldest = invalidated.values().iterator();
+		while (invalidated.size() > maxInvalidations) {
+			floor = Math.max(floor, oldest.next());
+			oldest.remove();
+		}
+		byte[] old = pages.remove(farmerId);
+		if (old != null)
+			totalBytes -= old.length;
+	}
+
+	private synchronized void invalidateAll() {
+		floor = ++epoch;
+		invalidated.clear();
+		pages.clear();
+		totalBytes = 0;
+	}
+
+	private void changed(Object entity, EntityPersister persister, Object[] oldState) {
+		if (entity instanceof StockDetails stock) {
+			invalidate(stock.getFarmer());
+			// a product moved to another farmer leaves the old listing too
+			if (oldState != null && oldState[persister.getPropertyIndex("farmer1")] instanceof Farmer previous)
+				invalidate(previous);
+		} else if (entity instanceof Farmer farmer) {
+			invalidate(farmer);
+		} else if (entity instanceof Category) {
+			invalidateAll();
+		}
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		changed(event.getEntity(), event.getPersister(), null);
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		changed(event.getEntity(), event.getPersister(), event.getOldState());
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		changed(event.getEntity(), event.getPersister(), null);
+	}
+
+	@Override
+	public void onPostInsertCommitFailed(PostInsertEvent event) {
+	}
+
+	@Override
+	public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+	}
+
+	@Override
+	public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+	}
+
+	@Override
+	public boolean requiresPostCommitHandling(EntityPersister persister) {
+		Class<?> type = persister.getMappedClass();
+		return type == StockDetails.class || type == Farmer.class || type == Category.class;
+	}
+}
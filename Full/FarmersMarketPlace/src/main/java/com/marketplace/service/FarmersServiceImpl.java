@@ -1,11 +1,29 @@
 package com.marketplace.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
 import com.marketplace.dao.IFarmersDao;
+import com.marketplace.dao.IOrderArchiveDao;
+import com.marketplace.dto.FarmerView;
+import com.marketplace.dto.ProductUpdate;
+import com.marketplace.dto.ProductUpdateResult;
+import com.marketplace.dto.ProductUpdateResult.Status;
+import com.marketplace.dto.ProductView;
+import com.marketplace.pojos.Category;
 import com.marketplace.pojos.Farmer;
+import com.marketplace.pojos.OrderDetails;
 import com.marketplace.pojos.StockDetails;
 
 
@@ -13,21 +31,44 @@ import com.marketplace.pojos.StockDetails;
 @Transactional
 public class FarmersServiceImpl implements IFarmersService {
 
+	private static final Comparator<OrderDetails> NEWEST_FIRST = Comparator.comparing(
+			(OrderDetails line) -> line.getOrders().getPlaceOrderDate(), Comparator.nullsLast(Comparator.reverseOrder()));
+
 	@Autowired
 	private IFarmersDao f_dao;
+
+	@Autowired
+	private IOrderArchiveDao archiveDao;
+
+	@Autowired
+	private ArchiveService archive;
+
+	@Autowired
+	private SingleFlight singleFlight;
+
+	@Autowired
+	private DataVersions versions;
+
+	@Autowired
+	private FarmerPageCache pageCache;
 	
 	@Override
-	public List<Farmer> getFarmersList() {
+	public List<FarmerView> getFarmersList() {
 		return f_dao.getAllFarmers();
 	}
 
+	// hot reads: identical concurrent calls share one query (SingleFlight opens the transaction).
+	// Keyed by the page cache generation as well: the caller took its generation before this,
+	// so a flight it joins was not started before an invalidation that generation counts
 	@Override
-	public List<StockDetails> getFarmerStock(int farmerid) {
-		return f_dao.getFarmerStock(farmerid);
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<ProductView> getFarmerStock(int farmerid) {
+		long generation = pageCache.generation(farmerid);
+		return singleFlight.read("farmerStock", farmerid + "@" + generation, () -> f_dao.getFarmerStock(farmerid));
 	}
 
 	@Override
-	public StockDetails getProductDetails(int farmerid, int productid) {
+	public ProductView getProductDetails(int farmerid, int productid) {
 		return f_dao.getProductDetails(farmerid, productid);
 	}
 
@@ -36,9 +77,13 @@ public class FarmersServiceImpl implements IFarmersService {
 		return f_dao.getFarmerDetails(id);
 	}
 
+	// keyed by the data version as well: the caller read its ETag before this, so a
+	// flight it joins started its query no earlier than that version and cannot be older
 	@Override
-	public List<StockDetails> getAllProduct() {
-		return f_dao.getAllProduct();
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<ProductView> getAllProduct() {
+		String version = versions.etag(StockDetails.class, Category.class, Farmer.class);
+		return singleFlight.read("allProducts", version, () -> f_dao.getAllProduct());
 	}
 
 	@Override
@@ -62,8 +107,9 @@ public class FarmersServiceImpl implements IFarmersService {
 	}
 
 	@Override
-	public List<?> getSellerSales(int farmerId) {
-		return f_dao.getSellerSales(farmerId);
+	public List<OrderDetails> getSellerSales(int farmerId, LocalDate from, LocalDate to) {
+		List<OrderDetails> live = f_dao.getSellerSales(farmerId, from, to);
+		return archive.withArchived(live, from, () -> archiveDao.getSellerSales(farmerId, from, to), NEWEST_FIRST);
 	}
 
 	@Override
@@ -75,5 +121,51 @@ public class FarmersServiceImpl implements IFarmersService {
 	public boolean updateSellerProfile(int farmerId, Farmer updatedProfile) {
 		return f_dao.updateSellerProfile(farmerId, updatedProfile);
 	}
+
+	@Override
+	public List<ProductUpdateResult> updateProducts(int farmerId, List<ProductUpdate> updates) {
+		List<ProductUpdateResult> results = new ArrayList<>(updates.size());
+		List<ProductUpdate> valid = new ArrayList<>(updates.size());
+		Set<Integer> seen = new HashSet<>();
+		for (ProductUpdate u : updates) {
+			String problem = validate(u, seen);
+			if (problem != null)
+				results.add(new ProductUpdateResult(u.productId(), Status.INVALID, null, problem));
+			else {
+				valid.add(u);
+				results.add(null);
+			}
+		}
+		if (valid.isEmpty())
+			return results;
+
+		List<ProductUpdateResult> updated = f_dao.updateProducts(farmerId, valid);
+		for (int i = 0, v = 0; i < results.size(); i++)
+			if (results.get(i) == null)
+				results.set(i, updated.get(v++));
+		// the UPDATEs bypass JPA, so its listeners never see them; the version is raised with them
+		versions.changed(StockDetails.class);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				pageCache.invalidate(farmerId);
+			}
+		});
+		return results;
+	}
+
+	private static String validate(ProductUpdate u, Set<Integer> seen) {
+		if (u.productId() == null)
+			return "productId is required";
+		if (!seen.add(u.productId()))
+			return "productId appears more than once";
+		if (u.pricePerUnit() == null && u.quantity() == null)
+			return "nothing to update";
+		if (u.pricePerUnit() != null && !(u.pricePerUnit() >= 0 && Float.isFinite(u.pricePerUnit())))
+			return "pricePerUnit must be a non-negative number";
+		if (u.quantity() != null && u.quantity() < 0)
+			return "quantity must not be negative";
+		return null;
+	}
 	
 }
@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import com.marketplace.dto.UserView;
 import com.marketplace.pojos.Category;
 import com.marketplace.pojos.Farmer;
 import com.marketplace.pojos.OrderDetails;
@@ -28,7 +29,7 @@ public interface IAdminService {
 	byte[] restoreImage(int empId) throws IOException;
 	public List<Category> getAllCategory();
 	public List<OrderDetails> getAllOrders();
-	public List<User> getAllUser();
+	public List<UserView> getAllUser();
 	boolean UpdateUser(User user);
 	byte[] restoreImageAgain(String productName)throws IOException;
 	
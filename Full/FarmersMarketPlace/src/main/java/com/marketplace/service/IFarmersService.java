@@ -1,22 +1,30 @@
 package com.marketplace.service;
 
+import java.time.LocalDate;
 import java.util.List;
+
+import com.marketplace.dto.FarmerView;
+import com.marketplace.dto.ProductUpdate;
+import com.marketplace.dto.ProductUpdateResult;
+import com.marketplace.dto.ProductView;
 import com.marketplace.pojos.Farmer;
+import com.marketplace.pojos.OrderDetails;
 import com.marketplace.pojos.StockDetails;
 
 public interface IFarmersService {
 	
-	List<Farmer> getFarmersList();
+	List<FarmerView> getFarmersList();
 	Farmer getFarmerDetails(int id);
 	Farmer getFarmerByEmail(String email);
-	List<StockDetails> getFarmerStock(int farmerid);
-	StockDetails getProductDetails(int farmerid, int productid);
-	List<StockDetails> getAllProduct();
+	List<ProductView> getFarmerStock(int farmerid);
+	ProductView getProductDetails(int farmerid, int productid);
+	List<ProductView> getAllProduct();
 	boolean addProduct(StockDetails product);
 	boolean updateProduct(int productId, StockDetails updatedProduct);
 	boolean deleteProduct(int productId);
-	List<?> getSellerSales(int farmerId);
+	List<OrderDetails> getSellerSales(int farmerId, LocalDate from, LocalDate to);
 	Object getSellerStats(int farmerId);
 	boolean updateSellerProfile(int farmerId, Farmer updatedProfile);
+	List<ProductUpdateResult> updateProducts(int farmerId, List<ProductUpdate> updates);
 	
 }
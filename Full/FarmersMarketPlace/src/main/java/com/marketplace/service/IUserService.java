@@ -1,5 +1,6 @@
 package com.marketplace.service;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import com.marketplace.pojos.Cart;
@@ -10,10 +11,11 @@ import com.marketplace.pojos.User;
 public interface IUserService {
 	
 	public User Authenticate(String email, String password);
+	public Integer getFarmerId(User user);
 	public boolean Register(User user);
 	public CartItem AddToCart(int productid, int qty);
 	public boolean PlaceOrder(Cart cart, User user);
 	public User getUserDetails(int userId);
-	public List<OrderDetails> getOrder(int userId);
+	public List<OrderDetails> getOrder(int userId, LocalDate from, LocalDate to);
 	
 }
@@ -0,0 +1,147 @@
+package com.marketplace.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.marketplace.dao.IOrderHistoryDao;
+import com.marketplace.dto.OrderFilter;
+import com.marketplace.dto.OrderLineView;
+
+/**
+ * Paged order history for buyers (a page is limit orders with all their
+ * lines) and sellers (a page is limit lines), newest first. The cursor is the
+ * (place_order_date, id) of the last order or line of the previous page,
+ * base64url encoded, so a page is one index range read whatever its depth.
+ * <p>
+ * Each page reads limit + 1 from the live tables and, only when that is short
+ * or reaches back to the newest archived date, the same page from the archive;
+ * the two are merged the way {@link ArchiveService#withArchived} merges them.
+ */
+@Component
+@Transactional(readOnly = true)
+public class OrderHistoryService {
+
+	/** The lines of one page; next is the cursor of the following page, null on the last one. */
+	public record Page(List<OrderLineView> lines, String next) {
+	}
+
+	private record Position(LocalDate date, Integer id) {
+	}
+
+	private static final Comparator<OrderLineView> BY_ORDER = Comparator.comparing(OrderLineView::placeOrderDate)
+			.thenComparingInt(OrderLineView::orderId).thenComparingInt(OrderLineView::lineId).reversed();
+	private static final Comparator<OrderLineView> BY_LINE = Comparator.comparing(OrderLineView::placeOrderDate)
+			.thenComparingInt(OrderLineView::lineId).reversed();
+	private static final Position FIRST = new Position(null, null);
+
+	@Value("${order-history.default-limit:20}")
+	private int defaultLimit;
+
+	@Value("${order-history.max-limit:100}")
+	private int maxLimit;
+
+	@Autowired
+	private IOrderHistoryDao historyDao;
+
+	@Autowired
+	private ArchiveService archive;
+
+	/** Throws IllegalArgumentException for a cursor this service did not hand out. */
+	public Page buyerPage(int userId, OrderFilter filter, String cursor, Integer limit) {
+		Position after = decode(cursor);
+		int size = size(limit);
+		return page(filter, size, OrderLineView::orderId, BY_ORDER,
+				archived -> historyDao.getBuyerPage(userId, filter, after.date(), after.id(), size + 1, archived));
+	}
+
+	/** Throws IllegalArgumentException for a cursor this service did not hand out. */
+	public Page sellerPage(int farmerId, OrderFilter filter, String cursor, Integer limit) {
+		Position after = decode(cursor);
+		int size = size(limit);
+		return page(filter, size, OrderLineView::lineId, BY_LINE,
+				archived -> historyDao.getSellerPage(farmerId, filter, after.date(), after.id(), size + 1, archived));
+	}
+
+	/**
+	 * The first size units (orders or lines) of the size + 1 that load returns
+	 * from the live tables (false) and the archive (true), in order.
+	 */
+	private Page page(OrderFilter filter, int size, ToIntFunction<OrderLineView> unit, Comparator<OrderLineView> order,
+			Function<Boolean, List<OrderLineView>> load) {
+		List<OrderLineView> lines = load.apply(false);
+		// archived orders are dated on or before the boundary, so a full live page dated after it is complete
+		LocalDate newest = archive.newestArchived();
+		if (ArchiveService.reaches(newest, filter.from()) && (units(lines, unit) <= size
+				|| ArchiveService.reaches(newest, lines.get(lines.size() - 1).placeOrderDate()))) {
+			List<OrderLineView> archived = load.apply(true);
+			if (!archived.isEmpty()) {
+				Set<Integer> seen = new HashSet<>();
+				List<OrderLineView> all = new ArrayList<>(lines.size() + archived.size());
+				for (OrderLineView line : lines)
+					if (seen.add(line.lineId()))
+						all.add(line);
+				for (OrderLineView line : archived)
+					if (seen.add(line.lineId()))
+						all.add(line);
+				all.sort(order);
+				lines = all;
+			}
+		}
+
+		List<OrderLineView> page = new ArrayList<>();
+		int units = 0;
+		for (OrderLineView line : lines) {
+			if (page.isEmpty() || unit.applyAsInt(line) != unit.applyAsInt(page.get(page.size() - 1))) {
+				if (++units > size) {
+					OrderLineView last = page.get(page.size() - 1);
+					return new Page(page, encode(last.placeOrderDate(), unit.applyAsInt(last)));
+				}
+			}
+			page.add(line);
+		}
+		return new Page(page, null);
+	}
+
+	private static int units(List<OrderLineView> lines, ToIntFunction<OrderLineView> unit) {
+		int units = 0;
+		for (int i = 0; i < lines.size(); i++)
+			if (i == 0 || unit.applyAsInt(lines.get(i)) != unit.applyAsInt(lines.get(i - 1)))
+				units++;
+		return units;
+	}
+
+	private int size(Integer limit) {
+		return limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+	}
+
+	private static String encode(LocalDate date, int id) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((date + ":" + id).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Position decode(String cursor) {
+		if (cursor == null || cursor.isEmpty())
+			return FIRST;
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int colon = value.indexOf(':');
+			return new Position(LocalDate.parse(value.substring(0, colon)), Integer.parseInt(value.substring(colon + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+}
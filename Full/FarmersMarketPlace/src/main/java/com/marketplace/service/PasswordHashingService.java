@@ -0,0 +1,169 @@
+package com.marketplace.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.marketplace.custom_exceptions.HashingUnavailableException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * BCrypt hashing on a dedicated, size-bounded pool. A login storm fills the
+ * queue and is then rejected quickly instead of tying up every Tomcat thread
+ * on CPU-bound hashing.
+ */
+@Service
+public class PasswordHashingService {
+
+	private static final int MIN_STRENGTH = 4;
+	private static final int MAX_STRENGTH = 16;
+
+	@Value("${security.password.bcrypt-strength:10}")
+	private int strength;
+
+	@Value("${security.password.target-latency-ms:0}")
+	private long targetLatencyMs;
+
+	@Value("${security.password.hash-threads:2}")
+	private int threads;
+
+	@Value("${security.password.queue-capacity:64}")
+	private int queueCapacity;
+
+	@Value("${security.password.timeout-ms:2000}")
+	private long timeoutMs;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private BCryptPasswordEncoder encoder;
+	private String unknownUserHash;
+	private ThreadPoolExecutor executor;
+	private Timer hashTimer;
+	private Timer verifyTimer;
+	private Timer queueWaitTimer;
+
+	@PostConstruct
+	public void init() {
+		if (targetLatencyMs > 0)
+			strength = calibrate(targetLatencyMs);
+		encoder = new BCryptPasswordEncoder(strength);
+		unknownUserHash = encoder.encode("no-such-user");
+		System.out.println("BCrypt strength " + strength + ", " + threads + " hashing threads");
+
+		AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), r -> {
+					Thread t = new Thread(r, "password-hash-" + count.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}, new ThreadPoolExecutor.AbortPolicy());
+
+		hashTimer = Timer.builder("password.hash.latency").tag("op", "hash").register(registry);
+		verifyTimer = Timer.builder("password.hash.latency").tag("op", "verify").register(registry);
+		queueWaitTimer = Timer.builder("password.hash.queue.wait").register(registry);
+		Gauge.builder("password.hash.queue.size", executor, e -> e.getQueue().size()).register(registry);
+		Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	public String hash(String rawPassword) {
+		return submit(() -> hashTimer.record(() -> encoder.encode(rawPassword)));
+	}
+
+	/**
+	 * Checks a login attempt. Rows written before hashing was introduced still
+	 * hold the plain password; those are compared in constant time and reported
+	 * by {@link #needsUpgrade(String)}.
+	 */
+	public boolean matches(String rawPassword, String storedPassword) {
+		if (rawPassword == null || storedPassword == null)
+			return false;
+		if (!isHashed(storedPassword)) {
+			return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+					storedPassword.getBytes(StandardCharsets.UTF_8));
+		}
+		Boolean ok = submit(() -> verifyTimer.record(() -> encoder.matches(rawPassword, storedPassword)));
+		return Boolean.TRUE.equals(ok);
+	}
+
+	/**
+	 * Spends one BCrypt check, at the current strength, on a login for an email
+	 * nobody registered, so its response time does not tell it apart from a
+	 * wrong password. Always false.
+	 */
+	public boolean matchesUnknownUser(String rawPassword) {
+		matches(rawPassword == null ? "" : rawPassword, unknownUserHash);
+		return false;
+	}
+
+	public boolean needsUpgrade(String storedPassword) {
+		return !isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword);
+	}
+
+	private boolean isHashed(String storedPassword) {
+		return storedPassword.startsWith("$2a$") || storedPassword.startsWith("$2b$")
+				|| storedPassword.startsWith("$2y$");
+	}
+
+	private <T> T submit(Callable<T> task) {
+		long queuedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+				return task.call();
+			});
+		} catch (RejectedExecutionException e) {
+			throw new HashingUnavailableException("Password hashing queue is full");
+		}
+		try {
+			return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			throw new HashingUnavailableException("Password hashing timed out");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HashingUnavailableException("Interrupted while hashing");
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	// Picks the highest cost whose single hash stays within the target latency
+	private int calibrate(long targetMs) {
+		int chosen = MIN_STRENGTH;
+		for (int s = MIN_STRENGTH; s <= MAX_STRENGTH; s++) {
+			BCryptPasswordEncoder candidate = new BCryptPasswordEncoder(s);
+			long start = System.nanoTime();
+			candidate.encode("calibration-password");
+			long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			if (elapsedMs > targetMs)
+				break;
+			chosen = s;
+		}
+		return chosen;
+	}
+}
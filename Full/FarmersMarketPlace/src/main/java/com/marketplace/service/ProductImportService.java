@@ -0,0 +1,282 @@
+package com.marketplace.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.marketplace.dao.IFarmersDao;
+import com.marketplace.dto.ImportReport;
+import com.marketplace.dto.ImportedProduct;
+import com.marketplace.pojos.Category;
+import com.marketplace.pojos.StockDetails;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bulk product import for one farmer from CSV (first line is the header) or
+ * NDJSON, with the fields stockItem, quantity, pricePerUnit, category (a
+ * name), imagePath and description. The body is parsed row by row as it
+ * arrives and never held in memory.
+ * <p>
+ * Categories are loaded once up front; an unknown category is created on
+ * first use, as the single-product endpoint does. Valid rows are inserted in
+ * JDBC batches of chunk-size rows, each chunk in its own transaction, so a
+ * failure part way through keeps what was already committed. Stock item names
+ * are checked per chunk, against each other and with one IN query against the
+ * table (which already holds the earlier chunks), so memory stays bounded by
+ * the chunk. If a chunk is still rejected (typically a stock item added
+ * concurrently) its rows are retried one by one to pin the error on the right
+ * row. A row that cannot be parsed at all ends the import.
+ */
+@Component
+public class ProductImportService {
+
+	private static final int MAX_STOCK_ITEM = 50;
+	private static final int MAX_IMAGE_PATH = 400;
+	private static final int MAX_DESCRIPTION = 500;
+
+	@Value("${seller.import.chunk-size:1000}")
+	private int chunkSize;
+
+	@Value("${seller.import.max-errors:1000}")
+	private int maxErrors;
+
+	@Autowired
+	private IFarmersDao f_dao;
+
+	@Autowired
+	private IFarmersService f_service;
+
+	@Autowired
+	private IAdminService a_service;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private DataVersions versions;
+
+	@Autowired
+	private FarmerPageCache pageCache;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private TransactionTemplate readOnly;
+	private TransactionTemplate readWrite;
+	private ObjectReader csvReader;
+	private ObjectReader ndjsonReader;
+
+	@PostConstruct
+	public void init() {
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readWrite = new TransactionTemplate(transactionManager);
+		csvReader = new CsvMapper().readerForMapOf(Object.class).with(CsvSchema.emptySchema().withHeader());
+		ndjsonReader = mapper.readerForMapOf(Object.class);
+	}
+
+	/**
+	 * Imports every valid row of in for farmerId. Throws NoResultException
+	 * for an unknown farmer and IOException if the body cannot be read at all.
+	 */
+	public ImportReport importProducts(int farmerId, InputStream in, boolean csv) throws IOException {
+		f_service.getFarmerDetails(farmerId);
+		Map<String, Integer> categories = readOnly.execute(status -> f_dao.getCategoryIds());
+
+		Report report = new Report();
+		List<ImportedProduct> chunk = new ArrayList<>(chunkSize);
+		List<Long> chunkRows = new ArrayList<>(chunkSize);
+		Set<String> chunkKeys = new HashSet<>();
+		try (MappingIterator<Map<String, Object>> rows = (csv ? csvReader : ndjsonReader).readValues(in)) {
+			long row = 0;
+			while (true) {
+				Map<String, Object> values;
+				try {
+					if (!rows.hasNextValue())
+						break;
+					values = rows.nextValue();
+				} catch (IOException | RuntimeException e) {
+					report.fail(row + 1, "Unreadable row, import stopped: " + e.getMessage());
+					break;
+				}
+				row++;
+				try {
+					ImportedProduct product = toProduct(values, categories);
+					// checked last, so a rejected row does not reserve its name
+					if (!chunkKeys.add(key(product)))
+						throw new IllegalArgumentException("stockItem '" + product.stockItem() + "' already exists");
+					chunk.add(product);
+					chunkRows.add(row);
+				} catch (IllegalArgumentException e) {
+					report.fail(row, e.getMessage());
+				}
+				if (chunk.size() == chunkSize)
+					flush(farmerId, chunk, chunkRows, chunkKeys, report);
+			}
+		}
+		flush(farmerId, chunk, chunkRows, chunkKeys, report);
+		return report.build();
+	}
+
+	private ImportedProduct toProduct(Map<String, Object> values, Map<String, Integer> categories) {
+		String stockItem = text(values, "stockItem");
+		if (stockItem == null)
+			throw new IllegalArgumentException("stockItem is required");
+		if (stockItem.length() > MAX_STOCK_ITEM)
+			throw new IllegalArgumentException("stockItem is longer than " + MAX_STOCK_ITEM + " characters");
+		int quantity;
+		float price;
+		try {
+			quantity = Integer.parseInt(required(values, "quantity"));
+			price = Float.parseFloat(required(values, "pricePerUnit"));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("quantity and pricePerUnit must be numbers");
+		}
+		if (quantity < 0 || price < 0 || !Float.isFinite(price))
+			throw new IllegalArgumentException("quantity and pricePerUnit must not be negative");
+		String imagePath = text(values, "imagePath");
+		if (imagePath != null && imagePath.length() > MAX_IMAGE_PATH)
+			throw new IllegalArgumentException("imagePath is longer than " + MAX_IMAGE_PATH + " characters");
+		String description = text(values, "description");
+		if (description != null && description.length() > MAX_DESCRIPTION)
+			throw new IllegalArgumentException("description is longer than " + MAX_DESCRIPTION + " characters");
+		String categoryName = text(values, "category");
+		Integer categoryId = categoryName == null ? null : categoryId(categoryName, categories);
+		return new ImportedProduct(stockItem, quantity, price, categoryId, imagePath, description);
+	}
+
+	/**
+	 * The id of category name, inserted in a transaction of its own if it is
+	 * new. A failure becomes an IllegalArgumentException, so it fails the row
+	 * and not the import.
+	 */
+	private Integer categoryId(String name, Map<String, Integer> categories) {
+		Integer id = categories.get(name);
+		if (id != null)
+			return id;
+		try {
+			id = readWrite.execute(status -> f_dao.insertCategory(name));
+		} catch (DataIntegrityViolationException e) {
+			// created concurrently; null if the name belongs to a deleted category
+			Category existing = a_service.getCategoryByName(name);
+			if (existing == null)
+				throw new IllegalArgumentException("category '" + name + "' could not be created");
+			id = existing.getCategoryId();
+		} catch (DataAccessException | TransactionException e) {
+			throw new IllegalArgumentException("category '" + name + "' could not be created: "
+					+ (e instanceof DataAccessException dae ? dae.getMostSpecificCause() : e).getMessage());
+		}
+		categories.put(name, id);
+		return id;
+	}
+
+	private static String required(Map<String, Object> values, String field) {
+		String value = text(values, field);
+		if (value == null)
+			throw new IllegalArgumentException(field + " is required");
+		return value;
+	}
+
+	// stock_item is unique under a case-insensitive collation
+	private static String key(ImportedProduct product) {
+		return product.stockItem().toLowerCase(Locale.ROOT);
+	}
+
+	private static String text(Map<String, Object> values, String field) {
+		Object value = values.get(field);
+		if (value == null)
+			return null;
+		String text = value.toString().trim();
+		return text.isEmpty() ? null : text;
+	}
+
+	private void flush(int farmerId, List<ImportedProduct> chunk, List<Long> chunkRows, Set<String> chunkKeys,
+			Report report) {
+		chunkKeys.clear();
+		if (chunk.isEmpty())
+			return;
+		Set<String> taken = readOnly.execute(status -> f_dao.getTakenStockItemKeys(
+				chunk.stream().map(ImportedProduct::stockItem).toList()));
+		if (!taken.isEmpty()) {
+			int kept = 0;
+			for (int i = 0; i < chunk.size(); i++) {
+				if (taken.contains(key(chunk.get(i)))) {
+					report.fail(chunkRows.get(i), "stockItem '" + chunk.get(i).stockItem() + "' already exists");
+				} else {
+					chunk.set(kept, chunk.get(i));
+					chunkRows.set(kept++, chunkRows.get(i));
+				}
+			}
+			chunk.subList(kept, chunk.size()).clear();
+			chunkRows.subList(kept, chunkRows.size()).clear();
+			if (chunk.isEmpty())
+				return;
+		}
+		try {
+			readWrite.executeWithoutResult(status -> f_dao.insertProducts(farmerId, chunk));
+			report.imported(chunk.size());
+		} catch (DataAccessException e) {
+			for (int i = 0; i < chunk.size(); i++) {
+				List<ImportedProduct> one = List.of(chunk.get(i));
+				try {
+					readWrite.executeWithoutResult(status -> f_dao.insertProducts(farmerId, one));
+					report.imported(1);
+				} catch (DataAccessException rowError) {
+					report.fail(chunkRows.get(i), rowError.getMostSpecificCause().getMessage());
+				}
+			}
+		}
+		chunk.clear();
+		chunkRows.clear();
+		// the inserts bypass JPA, so its post-commit listeners never see them
+		versions.changed(StockDetails.class);
+		pageCache.invalidate(farmerId);
+	}
+
+	private class Report {
+		private final List<ImportReport.RowError> errors = new ArrayList<>();
+		private long imported;
+		private long failed;
+
+		void imported(int rows) {
+			imported += rows;
+			Counter.builder("seller.import.rows").tag("outcome", "imported").register(registry).increment(rows);
+		}
+
+		void fail(long row, String message) {
+			failed++;
+			if (errors.size() < maxErrors)
+				errors.add(new ImportReport.RowError(row, message));
+			Counter.builder("seller.import.rows").tag("outcome", "failed").register(registry).increment();
+		}
+
+		ImportReport build() {
+			return new ImportReport(imported, failed, errors, failed > errors.size());
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package com.marketplace.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Physically removes soft-deleted farmers and categories. Removing one only
+ * sets its deleted flag, which hides it (and, through the product queries, its
+ * stock) at once; this job then deletes the rows that depend on it, farmer
+ * stock, live and archived order lines and archived sales totals, or category
+ * products, in batches of at most batch-size rows by key, each batch its own
+ * short transaction, pausing pause-ms between batches so live traffic keeps the locks and the
+ * connection pool. The owner row goes last, so an interrupted purge simply
+ * continues on the next run.
+ * <p>
+ * Runs every interval-ms on its own thread; {@link #status()} reports what is
+ * pending and how far the current purge has got.
+ */
+@Component
+public class PurgeService {
+
+	/** Progress of one soft-deleted owner, e.g. farmer 12. */
+	public record Progress(String owner, int id, Map<String, Long> deletedRows, boolean done) {
+	}
+
+	private record Dependent(String table, String key, String ownerColumn) {
+	}
+
+	private static final List<Dependent> FARMER_DEPENDENTS = List.of(
+			new Dependent("order_details", "id", "farmer_id"),
+			new Dependent("order_details_archive", "id", "farmer_id"),
+			new Dependent("seller_archive_buyers", "user_id", "farmer_id"),
+			new Dependent("seller_archive_totals", "farmer_id", "farmer_id"),
+			new Dependent("stock_details", "product_id", "farmer_id"));
+
+	private static final List<Dependent> CATEGORY_DEPENDENTS = List.of(
+			new Dependent("stock_details", "product_id", "category_id"));
+
+	@Value("${purge.interval-ms:30000}")
+	private long intervalMs;
+
+	@Value("${purge.batch-size:500}")
+	private int batchSize;
+
+	@Value("${purge.pause-ms:50}")
+	private long pauseMs;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private NamedParameterJdbcTemplate named;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private ScheduledExecutorService purger;
+	private final Map<String, Progress> progress = new ConcurrentHashMap<>();
+	private volatile int pending;
+
+	@PostConstruct
+	public void init() {
+		purger = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "purge");
+			t.setDaemon(true);
+			return t;
+		});
+		purger.scheduleWithFixedDelay(this::purgeAll, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+		Gauge.builder("purge.pending", this, p -> p.pending).register(registry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		purger.shutdownNow();
+	}
+
+	/** Owners purged or being purged in the current run, or finished in the last one. */
+	public List<Progress> status() {
+		return new ArrayList<>(progress.values());
+	}
+
+	/** Starts a run now instead of at the next interval. */
+	public void trigger() {
+		purger.execute(this::purgeAll);
+	}
+
+	private void purgeAll() {
+		try {
+			List<Integer> farmers = jdbc.queryForList("SELECT farmer_id FROM farmer WHERE deleted = true", Integer.class);
+			List<Integer> categories = jdbc.queryForList("SELECT category_id FROM category WHERE deleted = true",
+					Integer.class);
+			pending = farmers.size() + categories.size();
+			progress.values().removeIf(Progress::done);
+			for (int id : farmers)
+				purge("farmer", id, FARMER_DEPENDENTS, "DELETE FROM farmer WHERE farmer_id = ? AND deleted = true");
+			for (int id : categories)
+				purge("category", id, CATEGORY_DEPENDENTS,
+						"DELETE FROM category WHERE category_id = ? AND deleted = true");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException e) {
+			// retried on the next run
+			System.out.println("purge failed: " + e);
+		}
+	}
+
+	private void purge(String owner, int id, List<Dependent> dependents, String deleteOwner)
+			throws InterruptedException {
+		long start = System.nanoTime();
+		Map<String, Long> deleted = new LinkedHashMap<>();
+		String name = owner + ":" + id;
+		for (Dependent dependent : dependents) {
+			String select = "SELECT " + dependent.key() + " FROM " + dependent.table() + " WHERE "
+					+ dependent.ownerColumn() + " = ? LIMIT ?";
+			String delete = "DELETE FROM " + dependent.table() + " WHERE " + dependent.ownerColumn() + " = :owner AND "
+					+ dependent.key() + " IN (:ids)";
+			Counter rows = Counter.builder("purge.rows").tag("table", dependent.table()).register(registry);
+			while (true) {
+				List<Integer> ids = jdbc.queryForList(select, Integer.class, id, batchSize);
+				if (ids.isEmpty())
+					break;
+				int count = named.update(delete, Map.of("owner", id, "ids", ids));
+				rows.increment(count);
+				deleted.merge(dependent.table(), (long) count, Long::sum);
+				progress.put(name, new Progress(owner, id, Map.copyOf(deleted), false));
+				Thread.sleep(pauseMs);
+			}
+		}
+		jdbc.update(deleteOwner, id);
+		pending--;
+		progress.put(name, new Progress(owner, id, Map.copyOf(deleted), true));
+		System.out.println("purged " + name + " " + deleted + " in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+	}
+}
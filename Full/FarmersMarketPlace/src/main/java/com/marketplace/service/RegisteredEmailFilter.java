@@ -0,0 +1,104 @@
+package com.marketplace.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.marketplace.dao.IUserDao;
+
+/**
+ * Bloom filter over registered emails. A "no" is definite, so registration can
+ * skip the COUNT round trip and rely on the unique constraint; a "maybe" still
+ * goes through the pre-check. Until the startup load finishes every email is
+ * reported as "maybe".
+ */
+@Component
+public class RegisteredEmailFilter {
+
+	@Autowired
+	private IUserDao u_dao;
+
+	@Autowired
+	private TransactionTemplate txTemplate;
+
+	private final AtomicLongArray bits;
+	private final int numBits;
+	private final int numHashes;
+	private volatile boolean ready;
+
+	public RegisteredEmailFilter(@Value("${registration.email-filter.expected-insertions:1000000}") long expected,
+			@Value("${registration.email-filter.fpp:0.01}") double fpp) {
+		long m = (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+		numBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+		numHashes = Math.max(1, (int) Math.round((double) numBits / expected * Math.log(2)));
+		bits = new AtomicLongArray((numBits + 63) / 64);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		long count = txTemplate.execute(status -> {
+			try (Stream<String> emails = u_dao.streamAllEmails()) {
+				return emails.mapToLong(email -> {
+					add(email);
+					return 1;
+				}).sum();
+			}
+		});
+		ready = true;
+		System.out.println("Email filter loaded with " + count + " addresses");
+	}
+
+	public void add(String email) {
+		if (email == null)
+			return;
+		long h = hash(email);
+		int h1 = (int) h;
+		int h2 = (int) (h >>> 32);
+		for (int i = 0; i < numHashes; i++) {
+			int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+			int idx = bit >>> 6;
+			long mask = 1L << bit;
+			long cur;
+			while (((cur = bits.get(idx)) & mask) == 0 && !bits.compareAndSet(idx, cur, cur | mask))
+				;
+		}
+	}
+
+	/** @return false only if the email has definitely never been registered */
+	public boolean mightContain(String email) {
+		if (!ready || email == null)
+			return true;
+		long h = hash(email);
+		int h1 = (int) h;
+		int h2 = (int) (h >>> 32);
+		for (int i = 0; i < numHashes; i++) {
+			int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+			if ((bits.get(bit >>> 6) & (1L << bit)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	// 64-bit FNV-1a over the lower-cased address, finished with a murmur3 mix
+	private static long hash(String email) {
+		byte[] data = email.trim().toLowerCase().getBytes(StandardCharsets.UTF_8);
+		long h = 0xcbf29ce484222325L;
+		for (byte b : data) {
+			h ^= b;
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,117 @@
+package com.marketplace.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.marketplace.dto.ProductView;
+import com.marketplace.dto.SellerDashboard;
+import com.marketplace.pojos.Farmer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.NoResultException;
+
+/**
+ * Loads the four parts of the seller dashboard (profile, products, sales,
+ * stats) at the same time, each on its own virtual thread and in its own
+ * read-only transaction, so the dashboard takes as long as its slowest part
+ * rather than the sum. All parts share one deadline of part-timeout-ms; a
+ * part that fails or misses it is left out and reported under errors, and is
+ * interrupted when the dashboard returns. Only an unknown farmer fails the
+ * whole call.
+ */
+@Component
+public class SellerDashboardService {
+
+	@Value("${seller.dashboard.part-timeout-ms:3000}")
+	private long partTimeoutMs;
+
+	@Autowired
+	private IFarmersService f_service;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private TransactionTemplate readOnly;
+	private Timer timer;
+
+	@PostConstruct
+	public void init() {
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		timer = Timer.builder("seller.dashboard.latency").register(registry);
+	}
+
+	public SellerDashboard load(int farmerId) {
+		long start = System.nanoTime();
+		ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor();
+		try {
+			CompletableFuture<Farmer> profile = fork(scope, () -> f_service.getFarmerDetails(farmerId));
+			// getFarmerStock opens its own read-only transaction (SingleFlight)
+			CompletableFuture<List<ProductView>> products = CompletableFuture
+					.supplyAsync(() -> f_service.getFarmerStock(farmerId), scope);
+			CompletableFuture<List<?>> sales = fork(scope, () -> f_service.getSellerSales(farmerId, null, null));
+			CompletableFuture<Object> stats = fork(scope, () -> f_service.getSellerStats(farmerId));
+
+			long deadline = start + TimeUnit.MILLISECONDS.toNanos(partTimeoutMs);
+			Map<String, String> errors = new LinkedHashMap<>();
+			return new SellerDashboard(join("profile", profile, deadline, errors),
+					join("products", products, deadline, errors), join("sales", sales, deadline, errors),
+					join("stats", stats, deadline, errors), errors.isEmpty() ? null : errors);
+		} finally {
+			// stragglers are cancelled, not waited for
+			scope.shutdownNow();
+			timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private <T> CompletableFuture<T> fork(ExecutorService scope, Supplier<T> part) {
+		return CompletableFuture.supplyAsync(() -> readOnly.execute(status -> part.get()), scope);
+	}
+
+	private <T> T join(String part, CompletableFuture<T> future, long deadline, Map<String, String> errors) {
+		try {
+			return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			failed(part, "timeout");
+			errors.put(part, "Timed out after " + partTimeoutMs + " ms");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			errors.put(part, "Interrupted");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			// an unknown farmer is a 404 for the whole dashboard, not a missing part
+			if (cause instanceof NoResultException || cause instanceof EmptyResultDataAccessException)
+				throw (RuntimeException) cause;
+			failed(part, "error");
+			System.out.println("seller dashboard part " + part + " failed: " + cause);
+			errors.put(part, "Could not load " + part);
+		}
+		return null;
+	}
+
+	private void failed(String part, String reason) {
+		Counter.builder("seller.dashboard.part.failures").tag("part", part).tag("reason", reason).register(registry)
+				.increment();
+	}
+}
@@ -0,0 +1,107 @@
+package com.marketplace.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.marketplace.custom_exceptions.CoalescedReadTimeoutException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Request coalescing for hot reads. The first caller for a key runs the load
+ * (in its own read-only transaction) and every caller that arrives while it
+ * is in flight waits for that result instead of issuing the same query. A
+ * failure is rethrown to all of them; nothing is cached once the load
+ * completes. Waiters give up after timeout-ms with a 503.
+ * <p>
+ * A joined load may have started before the caller arrived, so it can miss a
+ * change the caller already knows of (say, through an ETag). Where that
+ * matters, the key includes the data version, read before calling: a caller
+ * then only joins loads started at that version or later.
+ * <p>
+ * Callers must not already hold a transaction: a waiter would keep a pooled
+ * connection idle for the whole wait. Results are shared between threads and
+ * must be treated as read-only.
+ */
+@Component
+public class SingleFlight {
+
+	@Value("${singleflight.timeout-ms:5000}")
+	private long timeoutMs;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private TransactionTemplate readOnly;
+
+	@PostConstruct
+	public void init() {
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+	}
+
+	/**
+	 * Runs load, or joins a load already running for (name, key). name tags
+	 * the singleflight.* meters, so it must come from a small fixed set.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T read(String name, Object key, Supplier<T> load) {
+		String flightKey = name + ':' + key;
+		CompletableFuture<Object> mine = new CompletableFuture<>();
+		CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, mine);
+		if (leader == null) {
+			counter("singleflight.calls", name, "leader").increment();
+			try {
+				T result = readOnly.execute(status -> load.get());
+				mine.complete(result);
+				return result;
+			} catch (RuntimeException | Error e) {
+				mine.completeExceptionally(e);
+				throw e;
+			} finally {
+				inFlight.remove(flightKey, mine);
+			}
+		}
+
+		counter("singleflight.calls", name, "coalesced").increment();
+		try {
+			return (T) leader.get(timeoutMs, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			// the leader's own exception, so every caller sees the same error
+			if (e.getCause() instanceof RuntimeException re)
+				throw re;
+			if (e.getCause() instanceof Error err)
+				throw err;
+			throw new IllegalStateException(e.getCause());
+		} catch (TimeoutException e) {
+			counter("singleflight.timeouts", name, null).increment();
+			throw new CoalescedReadTimeoutException("Timed out waiting for " + name);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CoalescedReadTimeoutException("Interrupted while waiting for " + name);
+		}
+	}
+
+	private Counter counter(String meter, String name, String role) {
+		Counter.Builder builder = Counter.builder(meter).tag("name", name);
+		if (role != null)
+			builder.tag("role", role);
+		return builder.register(registry);
+	}
+}
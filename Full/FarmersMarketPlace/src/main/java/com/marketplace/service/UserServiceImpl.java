@@ -1,16 +1,24 @@
 package com.marketplace.service;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.marketplace.custom_exceptions.ResourceNotFoundException;
+import com.marketplace.dao.IOrderArchiveDao;
 import com.marketplace.dao.IUserDao;
 import com.marketplace.pojos.Cart;
 import com.marketplace.pojos.CartItem;
 import com.marketplace.pojos.OrderDetails;
 import com.marketplace.pojos.User;
 
+import jakarta.persistence.NoResultException;
+
 @Service
 @Transactional
 public class UserServiceImpl implements IUserService {
@@ -18,10 +26,32 @@ public class UserServiceImpl implements IUserService {
 	@Autowired
 	private IUserDao u_dao;
 
+	@Autowired
+	private IOrderArchiveDao archiveDao;
+
+	@Autowired
+	private ArchiveService archive;
+
+	@Autowired
+	private PasswordHashingService hasher;
+
+	@Autowired
+	private TransactionTemplate txTemplate;
+
+	@Autowired
+	private RegisteredEmailFilter emailFilter;
+
+	// Hashing runs outside the transaction so no connection is held meanwhile
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public boolean Register(User user) {
 		try {
-			return u_dao.RegisterUser(user);
+			user.setPassword(hasher.hash(user.getPassword()));
+			boolean checkExisting = emailFilter.mightContain(user.getEmail());
+			boolean success = txTemplate.execute(status -> u_dao.RegisterUser(user, checkExisting));
+			if (success)
+				emailFilter.add(user.getEmail());
+			return success;
 		} catch (Exception e) {
 			System.err.println("Service Registration error: " + e.getMessage());
 			throw e; // Re-throw to let controller handle it
@@ -29,11 +59,34 @@ public class UserServiceImpl implements IUserService {
 	}
 
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public User Authenticate(String email, String password) {
-		User user = u_dao.AuthenticateUser(email, password);
+		User user;
+		try {
+			user = u_dao.getUserByEmail(email);
+		} catch (NoResultException | EmptyResultDataAccessException e) {
+			// as slow as a wrong password, so timing does not reveal which emails exist
+			hasher.matchesUnknownUser(password);
+			throw new ResourceNotFoundException("Invalid email or password");
+		}
+		String stored = user.getPassword();
+		if (!hasher.matches(password, stored))
+			throw new ResourceNotFoundException("Invalid email or password");
+		if (hasher.needsUpgrade(stored)) {
+			String upgraded = hasher.hash(password);
+			txTemplate.executeWithoutResult(status -> u_dao.updatePassword(user.getUserId(), upgraded));
+		}
 		return user;
 	}
 
+	// the seller's farmer profile, registered with the same email; null for buyers and admins
+	@Override
+	public Integer getFarmerId(User user) {
+		if (!"SELLER".equals(user.getUserType()))
+			return null;
+		return u_dao.getFarmerIdByEmail(user.getEmail());
+	}
+
 	@Override
 	public CartItem AddToCart(int productid, int qty) {
 		return u_dao.AddToCart(productid, qty);
@@ -51,7 +104,8 @@ public class UserServiceImpl implements IUserService {
 	}
 
 	@Override
-	public List<OrderDetails> getOrder(int userId) {
-		return u_dao.getOrder(userId);
+	public List<OrderDetails> getOrder(int userId, LocalDate from, LocalDate to) {
+		List<OrderDetails> live = u_dao.getOrder(userId, from, to);
+		return archive.withArchived(live, from, () -> archiveDao.getUserOrders(userId, from, to), null);
 	}
 }
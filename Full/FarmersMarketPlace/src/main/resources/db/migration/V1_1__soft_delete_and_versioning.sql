@@ -0,0 +1,12 @@
+-- Columns the mappings gained after the baseline schema. Numbered 1.1 so that
+-- it runs before V2, whose purge indexes are on the deleted columns.
+
+-- soft deletes: remove() only sets the flag, PurgeService deletes the rows later
+ALTER TABLE farmer ADD COLUMN deleted BIT DEFAULT FALSE NOT NULL;
+ALTER TABLE category ADD COLUMN deleted BIT DEFAULT FALSE NOT NULL;
+
+-- optimistic locking of products, also bumped by the bulk price and stock updates
+ALTER TABLE stock_details ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+-- BCrypt hashes are 60 characters; plain passwords are rehashed at the next login
+ALTER TABLE users MODIFY COLUMN password VARCHAR(100);
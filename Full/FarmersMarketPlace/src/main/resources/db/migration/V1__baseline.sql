@@ -0,0 +1,96 @@
+-- Baseline: the schema as Hibernate's ddl-auto=update created it before
+-- Flyway took over. Existing databases are baselined at this version instead
+-- of running it (spring.flyway.baseline-on-migrate), so it must not change:
+-- later columns go into later migrations.
+
+CREATE TABLE users (
+	user_id INT NOT NULL AUTO_INCREMENT,
+	email VARCHAR(50),
+	password VARCHAR(30),
+	phone_no VARCHAR(15),
+	address VARCHAR(200),
+	firstname VARCHAR(20),
+	lastname VARCHAR(20),
+	is_admin BIT,
+	user_type VARCHAR(10),
+	PRIMARY KEY (user_id),
+	CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE farmer (
+	farmer_id INT NOT NULL AUTO_INCREMENT,
+	firstname VARCHAR(20),
+	lastname VARCHAR(20),
+	email VARCHAR(50),
+	phone_no VARCHAR(15),
+	address VARCHAR(200),
+	PRIMARY KEY (farmer_id),
+	CONSTRAINT uk_farmer_phone_no UNIQUE (phone_no)
+);
+
+CREATE TABLE category (
+	category_id INT NOT NULL AUTO_INCREMENT,
+	category_name VARCHAR(255),
+	PRIMARY KEY (category_id),
+	CONSTRAINT uk_category_name UNIQUE (category_name)
+);
+
+CREATE TABLE stock_details (
+	product_id INT NOT NULL AUTO_INCREMENT,
+	stock_item VARCHAR(50) NOT NULL,
+	quantity INT NOT NULL,
+	price_per_unit FLOAT(40),
+	category_id INT,
+	farmer_id INT,
+	product_image VARCHAR(400),
+	description VARCHAR(500),
+	PRIMARY KEY (product_id),
+	CONSTRAINT uk_stock_details_stock_item UNIQUE (stock_item),
+	CONSTRAINT fk_stock_details_category FOREIGN KEY (category_id) REFERENCES category (category_id),
+	CONSTRAINT fk_stock_details_farmer FOREIGN KEY (farmer_id) REFERENCES farmer (farmer_id)
+);
+
+CREATE TABLE orders (
+	order_id INT NOT NULL AUTO_INCREMENT,
+	payment_status BIT,
+	delivery_status BIT,
+	user_id INT NOT NULL,
+	place_order_date DATE,
+	delivery_date DATE,
+	PRIMARY KEY (order_id),
+	CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE order_details (
+	id INT NOT NULL AUTO_INCREMENT,
+	order_item VARCHAR(20) NOT NULL,
+	quantity INT NOT NULL,
+	amount FLOAT(7) NOT NULL,
+	farmer_id INT,
+	order_id INT NOT NULL,
+	PRIMARY KEY (id),
+	CONSTRAINT fk_order_details_farmer FOREIGN KEY (farmer_id) REFERENCES farmer (farmer_id),
+	CONSTRAINT fk_order_details_order FOREIGN KEY (order_id) REFERENCES orders (order_id)
+);
+
+CREATE TABLE cart (
+	cart_id INT NOT NULL AUTO_INCREMENT,
+	grand_total FLOAT(53) NOT NULL,
+	PRIMARY KEY (cart_id)
+);
+
+-- the unique keys on cart_qty and price come from the CartItem mapping
+CREATE TABLE cart_items (
+	user_id INT NOT NULL AUTO_INCREMENT,
+	cart_item VARCHAR(50) NOT NULL,
+	cart_qty INT NOT NULL,
+	price FLOAT(53) NOT NULL,
+	amount FLOAT(53) NOT NULL,
+	farmerid INT NOT NULL,
+	cart_id INT,
+	PRIMARY KEY (user_id),
+	CONSTRAINT uk_cart_items_cart_item UNIQUE (cart_item),
+	CONSTRAINT uk_cart_items_cart_qty UNIQUE (cart_qty),
+	CONSTRAINT uk_cart_items_price UNIQUE (price),
+	CONSTRAINT fk_cart_items_cart FOREIGN KEY (cart_id) REFERENCES cart (cart_id)
+);
@@ -0,0 +1,31 @@
+-- Indexes for the DAO query shapes; QueryPlanTest fails if one of those
+-- queries falls back to a full table scan. Equality columns come first, then
+-- the sort or join key, then columns the query only reads. On MySQL each of
+-- these also replaces the implicit index InnoDB created for the foreign key
+-- on its first column.
+
+-- seller sales, seller stats (count, quantity and amount sums and distinct
+-- buyers come from the index alone) and the order lines of a farmer to purge
+CREATE INDEX idx_order_details_farmer ON order_details (farmer_id, order_id, quantity, amount);
+
+-- the lines of an order: buyer order history, joined from orders
+CREATE INDEX idx_order_details_order ON order_details (order_id);
+
+-- a buyer's orders, newest first
+CREATE INDEX idx_orders_user_date ON orders (user_id, place_order_date);
+
+-- orders by date across all buyers (date ranges, archiving)
+CREATE INDEX idx_orders_date ON orders (place_order_date);
+
+-- a farmer's products, newest first, and the bulk update version lookup
+CREATE INDEX idx_stock_details_farmer ON stock_details (farmer_id, product_id);
+
+-- products of a category (listing join, category purge)
+CREATE INDEX idx_stock_details_category ON stock_details (category_id);
+
+-- seller login and profile lookup by email
+CREATE INDEX idx_farmer_email ON farmer (email);
+
+-- the purge job looks for the few soft-deleted rows
+CREATE INDEX idx_farmer_deleted ON farmer (deleted);
+CREATE INDEX idx_category_deleted ON category (deleted);
@@ -0,0 +1,48 @@
+-- Cold storage for delivered orders older than archive.order-age-days, moved
+-- out of orders and order_details by ArchiveService. Same columns and ids as
+-- the live tables, no foreign keys: archived orders never change, and a
+-- purged farmer's archived lines are deleted with it.
+
+CREATE TABLE orders_archive (
+	order_id INT NOT NULL,
+	payment_status BIT,
+	delivery_status BIT,
+	user_id INT NOT NULL,
+	place_order_date DATE,
+	delivery_date DATE,
+	PRIMARY KEY (order_id)
+);
+
+CREATE INDEX idx_orders_archive_user_date ON orders_archive (user_id, place_order_date);
+-- newest archived date, read on start to decide which ranges need the archive
+CREATE INDEX idx_orders_archive_date ON orders_archive (place_order_date);
+
+CREATE TABLE order_details_archive (
+	id INT NOT NULL,
+	order_item VARCHAR(20) NOT NULL,
+	quantity INT NOT NULL,
+	amount FLOAT(7) NOT NULL,
+	farmer_id INT,
+	order_id INT NOT NULL,
+	PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_order_details_archive_farmer ON order_details_archive (farmer_id, order_id);
+CREATE INDEX idx_order_details_archive_order ON order_details_archive (order_id);
+
+-- Seller stats over the archive, kept up to date by each archive batch so the
+-- stats never read archived rows: line count and sums per farmer, and the set
+-- of buyers a farmer has archived sales to (for the distinct buyer count)
+CREATE TABLE seller_archive_totals (
+	farmer_id INT NOT NULL,
+	order_lines BIGINT NOT NULL,
+	quantity BIGINT NOT NULL,
+	amount FLOAT(53) NOT NULL,
+	PRIMARY KEY (farmer_id)
+);
+
+CREATE TABLE seller_archive_buyers (
+	farmer_id INT NOT NULL,
+	user_id INT NOT NULL,
+	PRIMARY KEY (farmer_id, user_id)
+);
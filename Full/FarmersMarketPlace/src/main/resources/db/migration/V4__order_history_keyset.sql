@@ -0,0 +1,21 @@
+-- Keyset pages of order history, newest first, each read as one index range.
+-- A seller's lines page on (place_order_date, id) of the line, so the order
+-- date is copied onto every line; a buyer's history pages by order on
+-- (place_order_date, order_id).
+
+ALTER TABLE order_details ADD COLUMN place_order_date DATE;
+ALTER TABLE order_details_archive ADD COLUMN place_order_date DATE;
+
+UPDATE order_details SET place_order_date =
+	(SELECT o.place_order_date FROM orders o WHERE o.order_id = order_details.order_id);
+UPDATE order_details_archive SET place_order_date =
+	(SELECT o.place_order_date FROM orders_archive o WHERE o.order_id = order_details_archive.order_id);
+
+CREATE INDEX idx_order_details_farmer_date ON order_details (farmer_id, place_order_date, id);
+CREATE INDEX idx_order_details_archive_farmer_date ON order_details_archive (farmer_id, place_order_date, id);
+
+-- replaces (user_id, place_order_date): the order id breaks ties between orders of the same day
+CREATE INDEX idx_orders_user_date_id ON orders (user_id, place_order_date, order_id);
+DROP INDEX idx_orders_user_date ON orders;
+CREATE INDEX idx_orders_archive_user_date_id ON orders_archive (user_id, place_order_date, order_id);
+DROP INDEX idx_orders_archive_user_date ON orders_archive;
@@ -0,0 +1,30 @@
+-- Shopping carts of logged-in buyers, one per user, shared by every instance.
+-- Item changes lock the buyer_carts row first, so one buyer's concurrent
+-- requests apply one at a time; last_used is refreshed on every cart request
+-- and carts unused for cart.idle-minutes are deleted with their items.
+-- (cart and cart_items are the old entity tables; their unique keys on item,
+-- quantity and price make them unusable as a cart.)
+
+CREATE TABLE buyer_carts (
+	user_id INT NOT NULL,
+	last_used TIMESTAMP NOT NULL,
+	PRIMARY KEY (user_id)
+);
+
+CREATE INDEX idx_buyer_carts_last_used ON buyer_carts (last_used);
+
+CREATE TABLE buyer_cart_items (
+	id INT NOT NULL AUTO_INCREMENT,
+	user_id INT NOT NULL,
+	product_id INT NOT NULL,
+	cart_item VARCHAR(50) NOT NULL,
+	cart_qty INT NOT NULL,
+	price FLOAT(53) NOT NULL,
+	amount FLOAT(53) NOT NULL,
+	farmer_id INT NOT NULL,
+	PRIMARY KEY (id),
+	CONSTRAINT fk_buyer_cart_items_cart FOREIGN KEY (user_id) REFERENCES buyer_carts (user_id) ON DELETE CASCADE
+);
+
+-- a cart's items in the order they were added
+CREATE INDEX idx_buyer_cart_items_user ON buyer_cart_items (user_id, id);
@@ -0,0 +1,17 @@
+-- Change counters behind the listing ETags (DataVersions), one row per entity
+-- a listing shows. A write raises its entity's row in its own transaction, so
+-- every instance derives the same tag from the committed data. The epoch row
+-- is the time this table was created: tags from a rebuilt database never
+-- repeat the ones of the old one.
+
+CREATE TABLE data_versions (
+	entity VARCHAR(64) NOT NULL,
+	version BIGINT NOT NULL,
+	PRIMARY KEY (entity)
+);
+
+INSERT INTO data_versions (entity, version)
+	VALUES ('epoch', TIMESTAMPDIFF(SECOND, TIMESTAMP '2000-01-01 00:00:00', CURRENT_TIMESTAMP));
+INSERT INTO data_versions (entity, version) VALUES ('StockDetails', 0);
+INSERT INTO data_versions (entity, version) VALUES ('Category', 0);
+INSERT INTO data_versions (entity, version) VALUES ('Farmer', 0);
@@ -0,0 +1,144 @@
+package com.marketplace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.marketplace.custom_exceptions.CatalogUnavailableException;
+import com.marketplace.service.CatalogFallback;
+import com.marketplace.service.CatalogFallback.Served;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.NoResultException;
+
+/**
+ * Stale-while-revalidate without Spring: after one good read of a key, a
+ * timeout or a database failure serves that result as stale, an open
+ * breaker serves it without calling the load at all, and errors that are not
+ * database failures reach the caller unchanged.
+ */
+class CatalogFallbackTest {
+
+	private static final long TIMEOUT_MS = 100;
+
+	private CatalogFallback fallback;
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@BeforeEach
+	void start() {
+		fallback = new CatalogFallback();
+		// min-calls above the calls of a test keeps the breaker closed unless a test lowers it
+		configure(20, 20);
+	}
+
+	@AfterEach
+	void stop() {
+		release.countDown();
+		fallback.shutdown();
+	}
+
+	private void configure(int window, int minCalls) {
+		ReflectionTestUtils.setField(fallback, "window", window);
+		ReflectionTestUtils.setField(fallback, "minCalls", minCalls);
+		ReflectionTestUtils.setField(fallback, "failureRatePercent", 50);
+		ReflectionTestUtils.setField(fallback, "slowCallMs", 1000L);
+		ReflectionTestUtils.setField(fallback, "timeoutMs", TIMEOUT_MS);
+		// no background probe during a test
+		ReflectionTestUtils.setField(fallback, "probeIntervalMs", TimeUnit.HOURS.toMillis(1));
+		ReflectionTestUtils.setField(fallback, "threads", 2);
+		ReflectionTestUtils.setField(fallback, "maxEntries", 100);
+		ReflectionTestUtils.setField(fallback, "registry", new SimpleMeterRegistry());
+		fallback.init();
+	}
+
+	@Test
+	void freshReadIsNotStale() {
+		Served<String> served = fallback.read("test", "k", () -> "v1");
+		assertEquals("v1", served.body());
+		assertFalse(served.stale());
+	}
+
+	@Test
+	void timeoutServesLastGoodResult() {
+		fallback.read("test", "k", () -> "v1");
+		Served<String> served = fallback.read("test", "k", () -> {
+			await();
+			return "v2";
+		});
+		assertTrue(served.stale());
+		assertEquals("v1", served.body());
+	}
+
+	@Test
+	void databaseErrorServesLastGoodResult() {
+		fallback.read("test", "k", () -> "v1");
+		Served<String> served = fallback.read("test", "k", () -> {
+			throw new DataAccessResourceFailureException("connection refused", new SQLException("down"));
+		});
+		assertTrue(served.stale());
+		assertEquals("v1", served.body());
+	}
+
+	@Test
+	void databaseErrorWithoutEarlierResultIsUnavailable() {
+		fallback.read("test", "other", () -> "v1");
+		assertThrows(CatalogUnavailableException.class, () -> fallback.read("test", "k", () -> {
+			throw new DataAccessResourceFailureException("connection refused");
+		}));
+	}
+
+	@Test
+	void nonDatabaseErrorPassesThrough() {
+		fallback.read("test", "k", () -> "v1");
+		IllegalArgumentException bad = new IllegalArgumentException("bad id");
+		assertSame(bad, assertThrows(IllegalArgumentException.class, () -> fallback.read("test", "k", () -> {
+			throw bad;
+		})));
+		// a PersistenceException, but an unknown id rather than a failing database
+		assertThrows(NoResultException.class, () -> fallback.read("test", "k", () -> {
+			throw new NoResultException("no such product");
+		}));
+	}
+
+	@Test
+	void openBreakerServesStaleWithoutLoading() {
+		fallback.shutdown();
+		fallback = new CatalogFallback();
+		configure(4, 2);
+		fallback.read("test", "k", () -> "v1");
+		fallback.read("test", "k", () -> {
+			throw new DataAccessResourceFailureException("down");
+		});
+		// 1 of 2 failed: open
+
+		AtomicInteger loads = new AtomicInteger();
+		Served<String> served = fallback.read("test", "k", () -> {
+			loads.incrementAndGet();
+			return "v2";
+		});
+		assertTrue(served.stale());
+		assertEquals("v1", served.body());
+		assertEquals(0, loads.get(), "no read reaches the database while the circuit is open");
+	}
+
+	private void await() {
+		try {
+			release.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.marketplace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.marketplace.service.CircuitBreaker;
+import com.marketplace.service.CircuitBreaker.State;
+
+/**
+ * The breaker's transitions: it opens only once min-calls outcomes are
+ * recorded and the failures among the last window of them reach the rate;
+ * slow successes count as failures; while open it ignores outcomes, and
+ * close() starts it again with an empty window.
+ */
+class CircuitBreakerTest {
+
+	private static final long SLOW = 1000;
+
+	@Test
+	void staysClosedUntilMinCallsAreRecorded() {
+		CircuitBreaker breaker = new CircuitBreaker(10, 5, 50, SLOW);
+		for (int i = 0; i < 4; i++)
+			breaker.recordFailure();
+		assertEquals(State.CLOSED, breaker.state(), "4 of 4 failed, but fewer than min-calls");
+		assertTrue(breaker.allowRequest());
+
+		breaker.recordFailure();
+		assertEquals(State.OPEN, breaker.state());
+		assertFalse(breaker.allowRequest());
+		assertTrue(breaker.openedAt() > 0);
+	}
+
+	@Test
+	void opensWhenFailuresReachTheRate() {
+		CircuitBreaker breaker = new CircuitBreaker(10, 4, 50, SLOW);
+		breaker.recordSuccess(1);
+		breaker.recordSuccess(1);
+		breaker.recordFailure();
+		breaker.recordSuccess(1);
+		assertEquals(State.CLOSED, breaker.state(), "1 of 4 failed");
+
+		breaker.recordFailure();
+		assertEquals(State.CLOSED, breaker.state(), "2 of 5 failed");
+		breaker.recordFailure();
+		assertEquals(State.OPEN, breaker.state(), "3 of 6 failed");
+	}
+
+	@Test
+	void slowSuccessCountsAsFailure() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 2, 50, SLOW);
+		breaker.recordSuccess(SLOW);
+		breaker.recordSuccess(SLOW + 1);
+		assertEquals(State.OPEN, breaker.state(), "1 of 2 slower than the threshold");
+	}
+
+	@Test
+	void failuresOutsideTheWindowAreForgotten() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, SLOW);
+		breaker.recordFailure();
+		for (int i = 0; i < 4; i++)
+			breaker.recordSuccess(1);
+		// the first failure has left the window; counting it would make this 2 of 4
+		breaker.recordFailure();
+		assertEquals(State.CLOSED, breaker.state(), "1 of the last 4 failed");
+
+		breaker.recordFailure();
+		assertEquals(State.OPEN, breaker.state(), "2 of the last 4 failed");
+	}
+
+	@Test
+	void ignoresOutcomesWhileOpenAndCloseStartsAgain() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 2, 50, SLOW);
+		breaker.recordFailure();
+		breaker.recordFailure();
+		assertEquals(State.OPEN, breaker.state());
+		for (int i = 0; i < 10; i++)
+			breaker.recordSuccess(1);
+		assertEquals(State.OPEN, breaker.state(), "only close() closes it");
+
+		breaker.close();
+		assertEquals(State.CLOSED, breaker.state());
+		assertTrue(breaker.allowRequest());
+		// the failures from before close() are gone: one new failure is below min-calls
+		breaker.recordFailure();
+		assertEquals(State.CLOSED, breaker.state());
+		breaker.recordSuccess(1);
+		assertEquals(State.OPEN, breaker.state(), "1 of 2 failed after close");
+	}
+}
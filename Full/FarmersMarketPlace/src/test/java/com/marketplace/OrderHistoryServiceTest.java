@@ -0,0 +1,215 @@
+package com.marketplace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.marketplace.dao.IOrderArchiveDao;
+import com.marketplace.dto.OrderFilter;
+import com.marketplace.dto.OrderLineView;
+import com.marketplace.service.ArchiveService;
+import com.marketplace.service.OrderHistoryService;
+
+/**
+ * Pages one buyer's and one farmer's order history to the end across the
+ * archive boundary. The fixture has several orders on each day, and on the
+ * oldest-but-one day delivered orders (archived) share the date with pending
+ * ones (kept live), so pages break inside same-day ties on both sides of the
+ * boundary. Every line must come back exactly once, in order, with full pages
+ * until the last.
+ */
+@SpringBootTest
+class OrderHistoryServiceTest {
+
+	private static final Comparator<OrderLineView> BY_ORDER = Comparator.comparing(OrderLineView::placeOrderDate)
+			.thenComparingInt(OrderLineView::orderId).thenComparingInt(OrderLineView::lineId).reversed();
+	private static final Comparator<OrderLineView> BY_LINE = Comparator.comparing(OrderLineView::placeOrderDate)
+			.thenComparingInt(OrderLineView::lineId).reversed();
+	private static final OrderFilter ALL = new OrderFilter(null, null, null, null);
+	private static final long ARCHIVE_TIMEOUT_MS = 30000;
+
+	@Autowired
+	private OrderHistoryService history;
+
+	@Autowired
+	private ArchiveService archive;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private IOrderArchiveDao archiveDao;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private int userId;
+	private int farmerId;
+	private final Set<Integer> lineIds = new HashSet<>();
+	private final Set<Integer> archivedOrders = new HashSet<>();
+	private final Set<Integer> liveOrders = new HashSet<>();
+	private final Set<Integer> newestOrders = new HashSet<>();
+
+	@BeforeEach
+	void fixture() throws InterruptedException {
+		String key = Long.toString(System.nanoTime(), 36);
+		userId = insert("INSERT INTO users (email, password, firstname, is_admin, user_type) VALUES (?, 'x', 'History', false, 'BUYER')",
+				"history-" + key + "@example.com");
+		farmerId = insert("INSERT INTO farmer (firstname, email, phone_no) VALUES ('History', ?, ?)",
+				"history-" + key + "@example.com", key);
+
+		LocalDate today = LocalDate.now();
+		// archived: older than archive.order-age-days (365) and delivered
+		orders(today.minusDays(420), 2, true, archivedOrders);
+		// the boundary day: delivered orders are archived, pending ones of the same date stay live
+		orders(today.minusDays(400), 3, true, archivedOrders);
+		orders(today.minusDays(400), 2, false, liveOrders);
+		// live: recent, several orders a day
+		orders(today.minusDays(10), 3, true, liveOrders);
+		orders(today.minusDays(5), 2, false, newestOrders);
+		liveOrders.addAll(newestOrders);
+
+		archive.trigger();
+		long deadline = System.currentTimeMillis() + ARCHIVE_TIMEOUT_MS;
+		while (archived() < archivedOrders.size() || archive.status().running()) {
+			assertTrue(System.currentTimeMillis() < deadline, "archive run did not finish");
+			Thread.sleep(50);
+		}
+		assertEquals(liveOrders.size(), count("orders", "order_id", liveOrders), "pending and recent orders stay live");
+		assertTrue(archive.needsArchive(today.minusDays(400)), "the boundary day is covered by the archive");
+	}
+
+	@Test
+	void buyerPagesAreWholeOrdersWithoutGapsOrDuplicates() {
+		int limit = 2;
+		List<List<OrderLineView>> pages = pageAll(limit,
+				cursor -> history.buyerPage(userId, ALL, cursor, limit));
+		List<OrderLineView> all = check(pages, BY_ORDER);
+
+		int totalOrders = archivedOrders.size() + liveOrders.size();
+		Set<Integer> seenOrders = new HashSet<>();
+		for (int i = 0; i < pages.size(); i++) {
+			Set<Integer> orders = new LinkedHashSet<>();
+			for (OrderLineView line : pages.get(i))
+				orders.add(line.orderId());
+			for (Integer order : orders)
+				assertTrue(seenOrders.add(order), "order " + order + " split across pages");
+			int expected = i < pages.size() - 1 ? limit : totalOrders - limit * (pages.size() - 1);
+			assertEquals(expected, orders.size(), "orders on page " + i);
+		}
+		assertEquals(totalOrders, seenOrders.size());
+		assertEquals(lineIds.size(), all.size());
+	}
+
+	@Test
+	void sellerPagesAreFullWithoutGapsOrDuplicates() {
+		int limit = 3;
+		List<List<OrderLineView>> pages = pageAll(limit,
+				cursor -> history.sellerPage(farmerId, ALL, cursor, limit));
+		check(pages, BY_LINE);
+
+		for (int i = 0; i < pages.size(); i++) {
+			int expected = i < pages.size() - 1 ? limit : lineIds.size() - limit * (pages.size() - 1);
+			assertEquals(expected, pages.get(i).size(), "lines on page " + i);
+		}
+	}
+
+	@Test
+	void seesOrdersArchivedByAnotherInstance() {
+		// moved the way another instance's archive run moves them: committed, but not through this ArchiveService
+		new TransactionTemplate(transactionManager).execute(s -> archiveDao.archiveOrders(List.copyOf(newestOrders)));
+		assertTrue(archive.needsArchive(LocalDate.now().minusDays(5)), "the boundary is read from the database");
+
+		int limit = 2;
+		OrderFilter recent = new OrderFilter(LocalDate.now().minusDays(7), null, null, null);
+		List<List<OrderLineView>> pages = pageAll(limit, cursor -> history.buyerPage(userId, recent, cursor, limit));
+		Set<Integer> orders = new HashSet<>();
+		pages.forEach(page -> page.forEach(line -> orders.add(line.orderId())));
+		assertEquals(newestOrders, orders, "orders archived elsewhere are still returned");
+	}
+
+	private List<List<OrderLineView>> pageAll(int limit, Function<String, OrderHistoryService.Page> load) {
+		List<List<OrderLineView>> pages = new ArrayList<>();
+		String cursor = null;
+		do {
+			OrderHistoryService.Page page = load.apply(cursor);
+			assertTrue(!page.lines().isEmpty() || pages.isEmpty(), "empty page after a cursor");
+			pages.add(page.lines());
+			cursor = page.next();
+			assertTrue(pages.size() <= lineIds.size(), "paging does not end");
+		} while (cursor != null);
+		return pages;
+	}
+
+	/** All lines of the pages, checked for order, duplicates and gaps. */
+	private List<OrderLineView> check(List<List<OrderLineView>> pages, Comparator<OrderLineView> order) {
+		List<OrderLineView> all = new ArrayList<>();
+		pages.forEach(all::addAll);
+		for (int i = 1; i < all.size(); i++)
+			assertTrue(order.compare(all.get(i - 1), all.get(i)) < 0,
+					"line " + all.get(i).lineId() + " out of order or repeated");
+		Set<Integer> seen = new HashSet<>();
+		for (OrderLineView line : all)
+			assertTrue(seen.add(line.lineId()), "line " + line.lineId() + " returned twice");
+		assertEquals(lineIds, seen, "lines missing from the pages");
+		return all;
+	}
+
+	/** count orders placed on date, the n-th with 1 + n % 3 lines. */
+	private void orders(LocalDate date, int count, boolean delivered, Set<Integer> ids) {
+		for (int n = 0; n < count; n++) {
+			int orderId = insert("INSERT INTO orders (payment_status, delivery_status, user_id, place_order_date)"
+					+ " VALUES (true, ?, ?, ?)", delivered, userId, Date.valueOf(date));
+			ids.add(orderId);
+			for (int l = 0; l <= n % 3; l++)
+				lineIds.add(insert("INSERT INTO order_details (order_item, quantity, amount, farmer_id, order_id,"
+						+ " place_order_date) VALUES ('item', 1, 2.5, ?, ?, ?)", farmerId, orderId, Date.valueOf(date)));
+		}
+	}
+
+	private int insert(String sql, Object... args) {
+		KeyHolder keys = new GeneratedKeyHolder();
+		jdbc.update(con -> {
+			PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+			for (int i = 0; i < args.length; i++)
+				ps.setObject(i + 1, args[i]);
+			return ps;
+		}, keys);
+		Number key = keys.getKey();
+		assertNotNull(key);
+		return key.intValue();
+	}
+
+	private int archived() {
+		return count("orders_archive", "order_id", archivedOrders);
+	}
+
+	private int count(String table, String column, Set<Integer> ids) {
+		int found = 0;
+		for (Integer id : ids)
+			found += jdbc.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?", Integer.class, id);
+		return found;
+	}
+}
@@ -0,0 +1,192 @@
+package com.marketplace;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.marketplace.dao.IAdminDao;
+import com.marketplace.dao.IFarmersDao;
+import com.marketplace.dao.IOrderArchiveDao;
+import com.marketplace.dao.IOrderHistoryDao;
+import com.marketplace.dao.IUserDao;
+import com.marketplace.dto.OrderFilter;
+import com.marketplace.metrics.SlowQueryLog;
+
+/**
+ * Runs every read query of the DAOs against the migrated schema and checks its
+ * EXPLAIN for full table scans. With the slow query threshold at 0 each
+ * statement is logged with its calling DAO method and explained on the
+ * database under test: on MySQL a plan row of type ALL is a full scan, on H2 a
+ * table read through tableScan. Listings that return a whole table name the
+ * tables they are allowed to scan; everything else must be served by an index.
+ */
+@SpringBootTest(properties = { "slow-query.threshold-ms=0", "slow-query.explain=true", "slow-query.capacity=1000" })
+class QueryPlanTest {
+
+	private static final Pattern H2_TABLE_SCAN = Pattern.compile("(\\w+)\\.(\\w+)\\.tableScan",
+			Pattern.CASE_INSENSITIVE);
+	private static final long PLAN_TIMEOUT_MS = 10000;
+
+	@Autowired
+	private IFarmersDao f_dao;
+
+	@Autowired
+	private IUserDao u_dao;
+
+	@Autowired
+	private IAdminDao a_dao;
+
+	@Autowired
+	private IOrderArchiveDao archiveDao;
+
+	@Autowired
+	private IOrderHistoryDao historyDao;
+
+	@Autowired
+	private SlowQueryLog log;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final List<String> failures = new ArrayList<>();
+
+	@Test
+	void daoQueriesUseIndexes() throws InterruptedException {
+		check("FarmersDaoImpl.getAllProduct", Set.of("stock_details"), () -> f_dao.getAllProduct());
+		check("FarmersDaoImpl.getAllFarmers", Set.of("farmer"), () -> f_dao.getAllFarmers());
+		check("FarmersDaoImpl.getFarmerDetails", Set.of(), () -> f_dao.getFarmerDetails(1));
+		check("FarmersDaoImpl.getFarmerByEmail", Set.of(), () -> f_dao.getFarmerByEmail("plan@example.com"));
+		check("FarmersDaoImpl.getFarmerStock", Set.of(), () -> f_dao.getFarmerStock(1));
+		check("FarmersDaoImpl.getProductDetails", Set.of(), () -> f_dao.getProductDetails(1, 1));
+		check("FarmersDaoImpl.getSellerSales", Set.of(), () -> f_dao.getSellerSales(1, null, null));
+		check("FarmersDaoImpl.getSellerStats", Set.of(), () -> f_dao.getSellerStats(1));
+		check("FarmersDaoImpl.getCategoryIds", Set.of("category"), () -> f_dao.getCategoryIds());
+		check("FarmersDaoImpl.getTakenStockItemKeys", Set.of(),
+				() -> f_dao.getTakenStockItemKeys(List.of("plan-a", "plan-b")));
+
+		check("UserDaoImpl.getUserDetails", Set.of(), () -> u_dao.getUserDetails(1));
+		check("UserDaoImpl.getUserByEmail", Set.of(), () -> u_dao.getUserByEmail("plan@example.com"));
+		check("UserDaoImpl.getFarmerIdByEmail", Set.of(), () -> u_dao.getFarmerIdByEmail("plan@example.com"));
+		check("UserDaoImpl.getOrder", Set.of(), () -> u_dao.getOrder(1, LocalDate.now().minusYears(1), null));
+		check("UserDaoImpl.AddToCart", Set.of(), () -> u_dao.AddToCart(1, 1));
+		check("UserDaoImpl.streamAllEmails", Set.of("users"), () -> {
+			try (Stream<String> emails = u_dao.streamAllEmails()) {
+				emails.count();
+			}
+		});
+
+		check("AdminDaoImpl.GetProductDetails", Set.of(), () -> a_dao.GetProductDetails(1));
+		check("AdminDaoImpl.GetCategory", Set.of(), () -> a_dao.GetCategory(1));
+		check("AdminDaoImpl.getCategoryByName", Set.of(), () -> a_dao.getCategoryByName("plan"));
+		check("AdminDaoImpl.getAllCategory", Set.of("category"), () -> a_dao.getAllCategory());
+		check("AdminDaoImpl.getAllOrders", Set.of("order_details"), () -> a_dao.getAllOrders());
+		check("AdminDaoImpl.getAllUser", Set.of("users"), () -> a_dao.getAllUser());
+
+		check("OrderArchiveDaoImpl.getArchivableOrders", Set.of(),
+				() -> archiveDao.getArchivableOrders(LocalDate.now(), 500));
+		check("OrderArchiveDaoImpl.getNewestArchivedDate", Set.of(), () -> archiveDao.getNewestArchivedDate());
+		check("OrderArchiveDaoImpl.getUserOrders", Set.of(),
+				() -> archiveDao.getUserOrders(1, LocalDate.now().minusYears(2), null));
+		check("OrderArchiveDaoImpl.getSellerSales", Set.of(), () -> archiveDao.getSellerSales(1, null, null));
+		check("OrderArchiveDaoImpl.getAllOrders", Set.of("order_details_archive"), () -> archiveDao.getAllOrders());
+
+		OrderFilter all = new OrderFilter(null, null, null, null);
+		OrderFilter filtered = new OrderFilter(LocalDate.now().minusYears(1), LocalDate.now(), true, true);
+		for (boolean archive : new boolean[] { false, true }) {
+			check("OrderHistoryDaoImpl.getBuyerPage", Set.of(),
+					() -> historyDao.getBuyerPage(1, all, null, null, 21, archive));
+			check("OrderHistoryDaoImpl.getBuyerPage", Set.of(),
+					() -> historyDao.getBuyerPage(1, filtered, LocalDate.now(), 100, 21, archive));
+			check("OrderHistoryDaoImpl.getSellerPage", Set.of(),
+					() -> historyDao.getSellerPage(1, all, null, null, 21, archive));
+			check("OrderHistoryDaoImpl.getSellerPage", Set.of(),
+					() -> historyDao.getSellerPage(1, filtered, LocalDate.now(), 100, 21, archive));
+		}
+
+		assertTrue(failures.isEmpty(), () -> String.join("\n", failures));
+	}
+
+	/**
+	 * Runs query in a read-only transaction, waits for the EXPLAIN of each
+	 * SELECT it issued and records a failure for every full scan of a table
+	 * outside allowedScans.
+	 */
+	private void check(String caller, Set<String> allowedScans, Runnable query) throws InterruptedException {
+		log.clear();
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.setReadOnly(true);
+		try {
+			tx.executeWithoutResult(status -> query.run());
+		} catch (RuntimeException e) {
+			// empty schema: single-result lookups find nothing, the statement still ran
+		}
+
+		List<SlowQueryLog.Entry> selects = new ArrayList<>();
+		for (SlowQueryLog.Entry entry : log.entries())
+			if (entry.caller.equals(caller) && entry.sql.regionMatches(true, 0, "select", 0, 6))
+				selects.add(entry);
+		if (selects.isEmpty()) {
+			failures.add(caller + ": no query was logged");
+			return;
+		}
+		for (SlowQueryLog.Entry entry : selects) {
+			List<Map<String, Object>> plan = awaitPlan(entry);
+			if (plan == null) {
+				failures.add(caller + ": no plan within " + PLAN_TIMEOUT_MS + " ms for " + entry.sql);
+				continue;
+			}
+			for (String table : fullScans(plan, entry, caller))
+				if (!allowedScans.contains(table))
+					failures.add(caller + ": full scan of " + table + " in " + entry.sql + "\n  plan: " + plan);
+		}
+	}
+
+	private static List<Map<String, Object>> awaitPlan(SlowQueryLog.Entry entry) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + PLAN_TIMEOUT_MS;
+		while (entry.plan == null && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		return entry.plan;
+	}
+
+	/** Tables the plan reads in full, lower case. */
+	private List<String> fullScans(List<Map<String, Object>> plan, SlowQueryLog.Entry entry, String caller) {
+		List<String> tables = new ArrayList<>();
+		for (Map<String, Object> row : plan) {
+			if (row.containsKey("error")) {
+				failures.add(caller + ": EXPLAIN failed for " + entry.sql + ": " + row.get("error"));
+			} else if (row.containsKey("type") || row.containsKey("TYPE")) {
+				// MySQL: one row per table; the table column holds the alias
+				Object type = row.containsKey("type") ? row.get("type") : row.get("TYPE");
+				if ("ALL".equals(type))
+					tables.add(tableOfAlias(String.valueOf(row.get("table")), entry.sql));
+			} else {
+				// H2: one row with the plan text, tables annotated with the index used
+				Matcher m = H2_TABLE_SCAN.matcher(String.valueOf(row.values().iterator().next()));
+				while (m.find())
+					tables.add(m.group(2).toLowerCase(Locale.ROOT));
+			}
+		}
+		return tables;
+	}
+
+	/** Hibernate aliases every table (stock_details sd1_0), MySQL reports the alias. */
+	private static String tableOfAlias(String alias, String sql) {
+		Matcher m = Pattern.compile("(?:from|join)\\s+(\\w+)\\s+" + Pattern.quote(alias) + "\\b",
+				Pattern.CASE_INSENSITIVE).matcher(sql);
+		return m.find() ? m.group(1).toLowerCase(Locale.ROOT) : alias.toLowerCase(Locale.ROOT);
+	}
+}
@@ -164,11 +164,50 @@ const api = axios.create({
   },
 });
 
+// Attach the JWT issued at login to every request
+api.interceptors.request.use((config) => {
+  const token = localStorage.getItem('token');
+  if (token) {
+    config.headers.Authorization = `Bearer ${token}`;
+  }
+  return config;
+});
+
+// Keep the tokens returned by /user/login and /user/refresh
+const storeTokens = (response) => {
+  const auth = response.headers && response.headers['authorization'];
+  if (auth && auth.startsWith('Bearer ')) {
+    localStorage.setItem('token', auth.substring(7));
+  }
+  const refresh = response.headers && response.headers['x-refresh-token'];
+  if (refresh) {
+    localStorage.setItem('refreshToken', refresh);
+  }
+  return response;
+};
+
+// On 401 try one refresh with the stored refresh token, then replay the request
+api.interceptors.response.use(undefined, async (error) => {
+  const original = error.config;
+  const refreshToken = localStorage.getItem('refreshToken');
+  if (error.response && error.response.status === 401 && refreshToken && original && !original._retried
+      && original.url !== API_ENDPOINTS.USER_REFRESH) {
+    original._retried = true;
+    const response = await api.post(API_ENDPOINTS.USER_REFRESH, null, {
+      headers: { 'X-Refresh-Token': refreshToken }
+    });
+    storeTokens(response);
+    return api(original);
+  }
+  throw error;
+});
+
 // API endpoints
 export const API_ENDPOINTS = {
   // User endpoints
   USER_REGISTER: '/user/register',
   USER_LOGIN: '/user/login',
+  USER_REFRESH: '/user/refresh',
   USER_ADD_TO_CART: '/user/addtocart',
   USER_CHECKOUT: '/user/checkout',
   USER_REMOVE_FROM_CART: '/user/removefromcart',
@@ -236,7 +275,7 @@ export const userAPI = {
     return { data: registeredUser };
   }),
   
-  login: (credentials) => api.post(API_ENDPOINTS.USER_LOGIN, credentials).catch((error) => {
+  login: (credentials) => api.post(API_ENDPOINTS.USER_LOGIN, credentials).then(storeTokens).catch((error) => {
     console.log('Login API failed, using fallback authentication');
     
     // First, check registered users from localStorage
@@ -572,7 +611,7 @@ export const sellerAPI = {
     };
   }),
   
-  getCategories: () => api.get('/admin/allcategories').catch(() => ({
+  getCategories: () => api.get('/seller/categories').catch(() => ({
     data: [
       { id: 1, categoryName: 'Vegetables' },
       { id: 2, categoryName: 'Fruits' },